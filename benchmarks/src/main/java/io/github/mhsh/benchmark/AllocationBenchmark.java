@@ -0,0 +1,79 @@
+package io.github.mhsh.benchmark;
+
+import io.github.mhsh.notifyexample.buffer.IntRingBuffer;
+import io.github.mhsh.notifyexample.buffer.LongRingBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per item of the boxed and primitive buffers. Each operation puts
+ * one item in and takes one out; item values start above the
+ * {@code Integer.valueOf} cache, as they do in a long-running producer.
+ *
+ * <p>Run with the GC profiler and compare {@code gc.alloc.rate.norm}:
+ * {@code java -jar benchmarks.jar AllocationBenchmark -prof gc}. The
+ * {@code LinkedList<Integer>} of the examples allocates a boxed value and a
+ * list node per item, {@link MpmcRingBuffer} only the boxed value, and
+ * {@link IntRingBuffer} and {@link LongRingBuffer} nothing at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AllocationBenchmark {
+    private static final int CAPACITY = 1024;
+
+    private Queue<Integer> linkedList;
+    private MpmcRingBuffer<Integer> boxedRing;
+    private IntRingBuffer intRing;
+    private LongRingBuffer longRing;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        linkedList = new LinkedList<>();
+        boxedRing = new MpmcRingBuffer<>(CAPACITY);
+        intRing = new IntRingBuffer(CAPACITY);
+        longRing = new LongRingBuffer(CAPACITY);
+        next = 1 << 20;
+    }
+
+    @Benchmark
+    public Integer linkedListBoxed() {
+        linkedList.add(next++);
+        return linkedList.poll();
+    }
+
+    @Benchmark
+    public Integer ringBufferBoxed() {
+        boxedRing.offer(next++);
+        return boxedRing.poll();
+    }
+
+    @Benchmark
+    public int intRingBuffer() {
+        intRing.offerInt(next++);
+        return intRing.pollInt(-1);
+    }
+
+    @Benchmark
+    public long longRingBuffer() {
+        longRing.offerLong(next++);
+        return longRing.pollLong(-1L);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.mhsh.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every suite in both throughput (ops/s) and average-time (ns/op) mode and
+ * writes one JSON result file per run, so a change can be compared against a
+ * stored baseline.
+ *
+ * <p>The single-operation suites are repeated for each benchmark thread count;
+ * {@link ScenarioBenchmark} manages its own threads through its {@code threads}
+ * parameter and {@link HandoffBenchmark} uses a fixed producer/consumer group,
+ * so both run once. {@link AllocationBenchmark} runs once more with the GC
+ * profiler, to record bytes allocated per item, and {@link StopTokenBenchmark}
+ * runs once in the modes its own methods declare.
+ *
+ * <p>Usage: {@code BenchmarkRunner [outputDir] [threadCounts]}, for example
+ * {@code BenchmarkRunner results 1,2,4,8}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String outputDir = args.length > 0 ? args[0] : ".";
+        List<Integer> threadCounts = args.length > 1 ? parseCounts(args[1]) : defaultThreadCounts();
+
+        for (int threads : threadCounts) {
+            String include = VisibilityBenchmark.class.getSimpleName() + "|"
+                    + CounterStrategyBenchmark.class.getSimpleName();
+            run(include, threads, outputDir + "/ops-t" + threads);
+        }
+        run(ScenarioBenchmark.class.getSimpleName() + "|" + HandoffBenchmark.class.getSimpleName(),
+                1, outputDir + "/scenario");
+        runAllocation(outputDir + "/allocation");
+        runStopToken(outputDir + "/stop-token");
+    }
+
+    private static void runStopToken(String resultPrefix) throws RunnerException {
+        ChainedOptionsBuilder stopToken = new OptionsBuilder()
+                .include(StopTokenBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPrefix + ".json");
+        new Runner(stopToken.build()).run();
+    }
+
+    private static void runAllocation(String resultPrefix) throws RunnerException {
+        ChainedOptionsBuilder allocation = new OptionsBuilder()
+                .include(AllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPrefix + "-gc.json");
+        new Runner(allocation.build()).run();
+    }
+
+    private static void run(String include, int threads, String resultPrefix) throws RunnerException {
+        ChainedOptionsBuilder throughput = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPrefix + "-thrpt.json");
+        new Runner(throughput.build()).run();
+
+        ChainedOptionsBuilder latency = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPrefix + "-avgt.json");
+        new Runner(latency.build()).run();
+    }
+
+    private static List<Integer> defaultThreadCounts() {
+        List<Integer> counts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int t = 1; t < cores; t <<= 1) {
+            counts.add(t);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    private static List<Integer> parseCounts(String value) {
+        List<Integer> counts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            counts.add(Integer.parseInt(part.trim()));
+        }
+        return counts;
+    }
+}
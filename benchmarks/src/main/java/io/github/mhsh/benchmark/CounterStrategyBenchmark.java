@@ -0,0 +1,39 @@
+package io.github.mhsh.benchmark;
+
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-increment cost of each {@link CounterStrategy} when every benchmark
+ * thread updates the same counter.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CounterStrategyBenchmark {
+
+    @Param({"CAS", "STRIPED", "PER_THREAD", "ADAPTIVE"})
+    public CounterStrategy strategy;
+
+    private Counter counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        counter = strategy.create();
+    }
+
+    @Benchmark
+    public void increment() {
+        counter.increment();
+    }
+}
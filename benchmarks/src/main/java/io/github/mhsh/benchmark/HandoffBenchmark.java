@@ -0,0 +1,101 @@
+package io.github.mhsh.benchmark;
+
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import io.github.mhsh.notifyexample.buffer.SpscQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One producer thread handing items to one consumer thread, as in
+ * {@code NotifySolutionExample}. Each side spins on the non-blocking call
+ * until it succeeds, so every operation is one item actually transferred and
+ * the score is the cost of one hand-off without any parking. The spin also
+ * ends when JMH stops the measurement, so neither side is left waiting for a
+ * partner that has already finished.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HandoffBenchmark {
+    private static final Integer ITEM = 42;
+
+    @Param({"MONITOR", "MPMC", "SPSC"})
+    public String buffer;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private BoundedBuffer<Integer> queue;
+    private Queue<Integer> monitorQueue;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        monitorQueue = new LinkedList<>();
+        if ("MPMC".equals(buffer)) {
+            queue = new MpmcRingBuffer<>(capacity);
+        } else if ("SPSC".equals(buffer)) {
+            queue = new SpscQueue<>(capacity);
+        } else {
+            queue = null;
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public void produce(Control control) {
+        while (!offer() && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public Integer consume(Control control) {
+        Integer item;
+        while ((item = poll()) == null && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        return item;
+    }
+
+    private boolean offer() {
+        if (queue != null) {
+            return queue.offer(ITEM);
+        }
+        synchronized (monitorQueue) {
+            return monitorQueue.size() < capacity && monitorQueue.add(ITEM);
+        }
+    }
+
+    private Integer poll() {
+        if (queue != null) {
+            return queue.poll();
+        }
+        synchronized (monitorQueue) {
+            return monitorQueue.poll();
+        }
+    }
+}
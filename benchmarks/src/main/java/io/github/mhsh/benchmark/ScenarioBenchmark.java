@@ -0,0 +1,220 @@
+package io.github.mhsh.benchmark;
+
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whole-scenario benchmarks: each invocation starts {@code threads} worker
+ * threads, runs {@code iterations} units of work and joins them, the same shape
+ * as the example classes but without their sleeps and console output.
+ * Thread start-up is part of the measured cost, as it is in the examples.
+ *
+ * <p>The {@link Items} aux counter reports completed work items per second
+ * next to the per-invocation time.
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScenarioBenchmark {
+
+    private static final int BUFFER_SIZE = 5;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1000", "100000"})
+    public int iterations;
+
+    private volatile int volatileCounter;
+
+    // Kept in its own state so only the strategy benchmark is expanded by it
+    @State(Scope.Benchmark)
+    public static class Strategy {
+        @Param({"CAS", "STRIPED", "PER_THREAD", "ADAPTIVE"})
+        public CounterStrategy strategy;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Items {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    /**
+     * {@code VolatileLimitations.start()}: racy {@code counter++} on a volatile field.
+     */
+    @Benchmark
+    public int volatileLimitations(Items items) throws InterruptedException {
+        volatileCounter = 0;
+        runWorkers(() -> {
+            for (int j = 0; j < iterations; j++) {
+                volatileCounter++;
+            }
+        });
+        items.items += (long) threads * iterations;
+        return volatileCounter;
+    }
+
+    /**
+     * {@code AtomicSolution.start()}: one shared {@link AtomicInteger}.
+     */
+    @Benchmark
+    public int atomicSolution(Items items) throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        runWorkers(() -> {
+            for (int j = 0; j < iterations; j++) {
+                counter.incrementAndGet();
+            }
+        });
+        items.items += (long) threads * iterations;
+        return counter.get();
+    }
+
+    /**
+     * {@code AtomicSolution.start(CounterStrategy)}: the same workload on a pluggable counter.
+     */
+    @Benchmark
+    public long atomicSolutionStrategy(Strategy strategy, Items items) throws InterruptedException {
+        Counter counter = strategy.strategy.create();
+        runWorkers(() -> {
+            for (int j = 0; j < iterations; j++) {
+                counter.increment();
+            }
+        });
+        items.items += (long) threads * iterations;
+        return counter.sum();
+    }
+
+    /**
+     * {@code JoinSolutionExample.runWithJoin()}: workers bump an unsynchronized
+     * {@code CounterHolder} and are joined in creation order.
+     */
+    @Benchmark
+    public int joinCounterHolder(Items items) throws InterruptedException {
+        CounterHolder holder = new CounterHolder();
+        runWorkers(() -> {
+            for (int j = 0; j < iterations; j++) {
+                holder.increment();
+            }
+        });
+        items.items += (long) threads * iterations;
+        return holder.getCount();
+    }
+
+    /**
+     * {@code NotifyAllExample.runWithMultipleConsumers()}: one producer and
+     * {@code threads} consumers sharing a {@code synchronized(buffer)} queue
+     * with {@code wait()}/{@code notifyAll()}; {@code iterations} items in total.
+     */
+    @Benchmark
+    public int producerConsumer(Items items) throws InterruptedException {
+        Queue<Integer> buffer = new LinkedList<>();
+        boolean[] producerDone = {false};
+        int[] consumed = {0};
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < iterations; i++) {
+                synchronized (buffer) {
+                    while (buffer.size() >= BUFFER_SIZE) {
+                        try {
+                            buffer.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    buffer.add(i);
+                    buffer.notifyAll();
+                }
+            }
+            synchronized (buffer) {
+                producerDone[0] = true;
+                buffer.notifyAll();
+            }
+        });
+        producer.start();
+        runWorkers(() -> {
+            while (true) {
+                synchronized (buffer) {
+                    while (buffer.isEmpty() && !producerDone[0]) {
+                        try {
+                            buffer.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                    if (buffer.isEmpty()) {
+                        return;
+                    }
+                    buffer.poll();
+                    consumed[0]++;
+                    buffer.notifyAll();
+                }
+            }
+        });
+        producer.join();
+        items.items += iterations;
+        return consumed[0];
+    }
+
+    private void runWorkers(Runnable task) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(task);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    // An unsynchronized read-modify-write like the example's original holder.
+    // Every store is opaque, so the JIT cannot keep the count in a register and
+    // fold the loop; the same holder as scaling.Scenarios uses
+    private static class CounterHolder {
+        private static final VarHandle COUNT;
+
+        static {
+            try {
+                COUNT = MethodHandles.lookup().findVarHandle(CounterHolder.class, "count", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private int count = 0;
+
+        public void increment() {
+            COUNT.setOpaque(this, (int) COUNT.getOpaque(this) + 1);
+        }
+
+        public int getCount() {
+            return (int) COUNT.getOpaque(this);
+        }
+    }
+}
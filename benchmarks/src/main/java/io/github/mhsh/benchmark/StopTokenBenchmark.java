@@ -0,0 +1,187 @@
+package io.github.mhsh.benchmark;
+
+import io.github.mhsh.multithread.stop.ReadMode;
+import io.github.mhsh.multithread.stop.StopPoller;
+import io.github.mhsh.multithread.stop.StopToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The two sides of polling a {@link StopToken} from a hot loop, per read mode:
+ * <ul>
+ *   <li>{@code checkEveryIteration} and {@code checkAmortized}: the cost of one
+ *       loop iteration that is never stopped, reading the token on every
+ *       iteration or through a {@link StopPoller} every
+ *       {@code checkInterval} iterations;</li>
+ *   <li>{@code timeToObserveStop}: the time from {@code requestStop()} until
+ *       a worker thread running the same loop has noticed and left it.</li>
+ * </ul>
+ *
+ * {@code PLAIN} is only measured for throughput: a loop reading the token that
+ * way may never stop. The stop latency needs a second core to be meaningful;
+ * on one core it is dominated by the scheduler handing the CPU to the worker.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StopTokenBenchmark {
+    private static final int LOOP_ITERATIONS = 100_000;
+    private static final int SPIN_TRIES = 100;
+
+    @State(Scope.Thread)
+    public static class PerIteration {
+        @Param({"PLAIN", "OPAQUE", "ACQUIRE", "VOLATILE"})
+        public ReadMode mode;
+
+        StopToken token;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            token = new StopToken();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Amortized {
+        @Param({"OPAQUE", "ACQUIRE", "VOLATILE"})
+        public ReadMode mode;
+
+        @Param({"16", "1024"})
+        public int checkInterval;
+
+        StopToken token;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            token = new StopToken();
+        }
+    }
+
+    /**
+     * A worker thread that runs the polling loop once per invocation: the
+     * invocation setup hands it a fresh token and waits until it is looping,
+     * so the measured time is only the stop itself.
+     */
+    @State(Scope.Thread)
+    public static class StopLatency {
+        @Param({"OPAQUE", "ACQUIRE", "VOLATILE"})
+        public ReadMode mode;
+
+        @Param({"1", "1024"})
+        public int checkInterval;
+
+        private Thread worker;
+        private StopToken token;
+        private volatile long round;
+        private volatile long started;
+        private volatile long stopped;
+        private volatile boolean shutdown;
+        @SuppressWarnings("unused")
+        private long sink;
+
+        @Setup(Level.Trial)
+        public void startWorker() {
+            worker = new Thread(this::runWorker, "stop-token-worker");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        @Setup(Level.Invocation)
+        public void armToken() {
+            token = new StopToken();
+            long next = round + 1;
+            round = next;
+            awaitRound(() -> started, next);
+        }
+
+        @TearDown(Level.Trial)
+        public void stopWorker() throws InterruptedException {
+            shutdown = true;
+            worker.join();
+        }
+
+        void stopAndAwait() {
+            token.requestStop();
+            awaitRound(() -> stopped, round);
+        }
+
+        private void runWorker() {
+            long lastRound = 0L;
+            while (!shutdown) {
+                long current = round;
+                if (current == lastRound) {
+                    Thread.yield();
+                    continue;
+                }
+                lastRound = current;
+                StopPoller poller = token.poller(mode, checkInterval);
+                long acc = 0L;
+                started = current;
+                for (long i = 0; !poller.shouldStop(); i++) {
+                    acc = acc * 31 + i;
+                }
+                sink = acc;
+                stopped = current;
+            }
+        }
+
+        private static void awaitRound(LongSupplier progress, long expected) {
+            for (int i = 0; progress.getAsLong() != expected; i++) {
+                if (i < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(LOOP_ITERATIONS)
+    public long checkEveryIteration(PerIteration state) {
+        StopToken token = state.token;
+        ReadMode mode = state.mode;
+        long acc = 0L;
+        for (int i = 0; i < LOOP_ITERATIONS && !token.isStopRequested(mode); i++) {
+            acc = acc * 31 + i;
+        }
+        return acc;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(LOOP_ITERATIONS)
+    public long checkAmortized(Amortized state) {
+        StopPoller poller = state.token.poller(state.mode, state.checkInterval);
+        long acc = 0L;
+        for (int i = 0; i < LOOP_ITERATIONS && !poller.shouldStop(); i++) {
+            acc = acc * 31 + i;
+        }
+        return acc;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void timeToObserveStop(StopLatency state) {
+        state.stopAndAwait();
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.mhsh.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-operation cost of the increments used by the multithread and join
+ * examples, all hammering one shared field. Run it with different thread counts
+ * (see {@link BenchmarkRunner}) to see how each one scales.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VisibilityBenchmark {
+
+    // VolatileLimitations: volatile read-modify-write, loses updates
+    private volatile int volatileCounter;
+
+    // AtomicSolution: AtomicInteger.incrementAndGet()
+    private final AtomicInteger atomicCounter = new AtomicInteger();
+
+    // JoinSolutionExample.CounterHolder: plain field, no synchronization
+    private int plainCounter;
+
+    @Benchmark
+    public int volatileIncrement() {
+        return volatileCounter++;
+    }
+
+    @Benchmark
+    public int atomicIncrement() {
+        return atomicCounter.incrementAndGet();
+    }
+
+    @Benchmark
+    public int counterHolderIncrement() {
+        return plainCounter++;
+    }
+}
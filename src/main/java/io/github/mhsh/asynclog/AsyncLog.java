@@ -0,0 +1,159 @@
+package io.github.mhsh.asynclog;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous log for hot paths and critical sections, as the replacement
+ * for {@code System.out.println("..." + value)}.
+ *
+ * <p>A call stores a constant template and up to three {@code long} arguments
+ * into a pre-allocated slot of the calling thread's own ring; no string is
+ * built, nothing is allocated and no lock is taken. A single background writer
+ * drains all rings, orders the batch by timestamp, formats it ({@code {}} in
+ * the template is replaced by the next argument) and writes it to
+ * {@code System.out} with one flush per batch. Console I/O therefore no longer
+ * counts as lock hold time for a thread that logs inside {@code synchronized}.
+ *
+ * <pre>{@code
+ * AsyncLog.log("Producer: Added item {}, Buffer size: {}", i, buffer.size());
+ * }</pre>
+ *
+ * A thread whose ring is full waits for the writer instead of dropping lines.
+ * Call {@link #flush()} before printing directly, so that earlier log lines
+ * come out first. Once a thread has ended and its lines are written, its ring
+ * is dropped. A line that cannot be formatted, or a batch that cannot be
+ * written, is reported on {@code System.err}; the writer keeps running.
+ */
+public final class AsyncLog {
+    static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final int RING_CAPACITY = 1024;
+
+    private static final List<LogRing> RINGS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<LogRing> LOCAL = ThreadLocal.withInitial(AsyncLog::register);
+    private static final AtomicLong FULL_RING_WAITS = new AtomicLong();
+    private static final Thread WRITER = startWriter();
+
+    private AsyncLog() {
+    }
+
+    public static void log(String template) {
+        publish(template, 0, 0L, 0L, 0L);
+    }
+
+    public static void log(String template, long arg0) {
+        publish(template, 1, arg0, 0L, 0L);
+    }
+
+    public static void log(String template, long arg0, long arg1) {
+        publish(template, 2, arg0, arg1, 0L);
+    }
+
+    public static void log(String template, long arg0, long arg1, long arg2) {
+        publish(template, 3, arg0, arg1, arg2);
+    }
+
+    /**
+     * Waits until everything logged before this call has been written out.
+     */
+    public static void flush() {
+        List<LogRing> rings = new ArrayList<>(RINGS);
+        long[] targets = new long[rings.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = rings.get(i).published();
+        }
+        LockSupport.unpark(WRITER);
+        for (int i = 0; i < targets.length; i++) {
+            while (rings.get(i).consumed() < targets[i]) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Returns how many times a logging thread found its ring full and had to wait.
+     */
+    public static long getFullRingWaits() {
+        return FULL_RING_WAITS.get();
+    }
+
+    private static void publish(String template, int argCount, long arg0, long arg1, long arg2) {
+        if (LOCAL.get().publish(template, argCount, arg0, arg1, arg2)) {
+            FULL_RING_WAITS.incrementAndGet();
+        }
+    }
+
+    private static LogRing register() {
+        LogRing ring = new LogRing(Thread.currentThread(), RING_CAPACITY);
+        RINGS.add(ring);
+        return ring;
+    }
+
+    private static Thread startWriter() {
+        Thread writer = new Thread(AsyncLog::writeLoop, "async-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return writer;
+    }
+
+    private static void writeLoop() {
+        List<LogEvent> batch = new ArrayList<>();
+        List<LogRing> drained = new ArrayList<>();
+        List<Long> drainedTo = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        Comparator<LogEvent> byTime = Comparator.comparingLong(e -> e.timestampNanos);
+        while (true) {
+            for (LogRing ring : RINGS) {
+                long from = ring.consumed();
+                long to = ring.published();
+                for (long p = from; p < to; p++) {
+                    batch.add(ring.eventAt(p));
+                }
+                if (to > from) {
+                    drained.add(ring);
+                    drainedTo.add(to);
+                } else if (ring.isRetired()) {
+                    RINGS.remove(ring);
+                }
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            
+            try {
+                batch.sort(byTime);
+                for (LogEvent event : batch) {
+                    int length = text.length();
+                    try {
+                        event.formatTo(text);
+                    } catch (RuntimeException e) {
+                        text.setLength(length);
+                        text.append("AsyncLog: could not format \"").append(event.template).append("\": ").append(e);
+                    }
+                    text.append(System.lineSeparator());
+                }
+                PrintStream out = System.out;
+                out.print(text);
+                out.flush();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                // Only now hand the slots back, so the events were not overwritten while formatting.
+                // Always hand them back, or a failed batch would block its loggers for good
+                for (int i = 0; i < drained.size(); i++) {
+                    drained.get(i).release(drainedTo.get(i));
+                }
+                batch.clear();
+                drained.clear();
+                drainedTo.clear();
+                text.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.mhsh.asynclog;
+
+/**
+ * One pre-allocated log slot: a constant template and up to three primitive
+ * arguments, formatted later by the writer thread.
+ */
+final class LogEvent {
+    long timestampNanos;
+    String template;
+    int argCount;
+    long arg0;
+    long arg1;
+    long arg2;
+
+    /**
+     * Appends the template with each {@code {}} replaced by the next argument.
+     */
+    void formatTo(StringBuilder sb) {
+        int arg = 0;
+        int from = 0;
+        int at;
+        while ((at = template.indexOf("{}", from)) >= 0) {
+            sb.append(template, from, at);
+            if (arg < argCount) {
+                sb.append(arg == 0 ? arg0 : arg == 1 ? arg1 : arg2);
+                arg++;
+            } else {
+                sb.append("{}");
+            }
+            from = at + 2;
+        }
+        sb.append(template, from, template.length());
+    }
+}
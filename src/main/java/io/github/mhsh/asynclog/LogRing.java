@@ -0,0 +1,102 @@
+package io.github.mhsh.asynclog;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single-producer/single-consumer ring of {@link LogEvent} slots owned by one
+ * logging thread and drained by the writer thread. The owner fills a slot in
+ * place and publishes it with a release store of {@code tail}; the writer
+ * frees slots the same way through {@code head}.
+ */
+final class LogRing {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(LogRing.class, "head", long.class);
+            TAIL = lookup.findVarHandle(LogRing.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Thread owner;
+    private final LogEvent[] events;
+    private final int mask;
+
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private long tail;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+    private long head;
+    @SuppressWarnings("unused")
+    private long p21, p22, p23, p24, p25, p26, p27;
+
+    LogRing(Thread owner, int capacity) {
+        this.owner = owner;
+        this.events = new LogEvent[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new LogEvent();
+        }
+    }
+
+    /**
+     * Owner thread only. Waits for the writer if the ring is full.
+     *
+     * @return true if the caller had to wait for a free slot
+     */
+    boolean publish(String template, int argCount, long arg0, long arg1, long arg2) {
+        long t = tail;
+        boolean waited = false;
+        while (t - (long) HEAD.getAcquire(this) >= events.length) {
+            waited = true;
+            LockSupport.parkNanos(AsyncLog.IDLE_PARK_NANOS);
+        }
+        LogEvent event = events[(int) t & mask];
+        event.timestampNanos = System.nanoTime();
+        event.template = template;
+        event.argCount = argCount;
+        event.arg0 = arg0;
+        event.arg1 = arg1;
+        event.arg2 = arg2;
+        TAIL.setRelease(this, t + 1);
+        return waited;
+    }
+
+    /**
+     * Writer thread only: the position up to which events are published.
+     */
+    long published() {
+        return (long) TAIL.getAcquire(this);
+    }
+
+    long consumed() {
+        return (long) HEAD.getAcquire(this);
+    }
+
+    LogEvent eventAt(long position) {
+        return events[(int) position & mask];
+    }
+
+    /**
+     * Writer thread only: frees every slot before {@code position}.
+     */
+    void release(long position) {
+        HEAD.setRelease(this, position);
+    }
+
+    /**
+     * Returns true once the owner thread has ended and everything it logged
+     * has been written, so the ring can be dropped.
+     */
+    boolean isRetired() {
+        // isAlive() returning false makes the owner's last publish visible
+        return !owner.isAlive() && consumed() == published();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * An in-process JFR recording of the custom monitor and work events, for runs
+ * that were not started with {@code -XX:StartFlightRecording}.
+ */
+public class ContentionRecording implements AutoCloseable {
+    private static final String ARG_PREFIX = "--jfr=";
+
+    private final Recording recording = new Recording();
+    private final Path destination;
+
+    private ContentionRecording(Path destination) {
+        this.destination = destination;
+        recording.setName("contention");
+        recording.enable(MonitorAcquireEvent.class);
+        recording.enable(MonitorHoldEvent.class);
+        recording.enable(MonitorWaitEvent.class);
+        recording.enable(WorkItemEvent.class);
+        recording.enable(JoinWaitEvent.class);
+        recording.start();
+    }
+
+    /**
+     * Starts recording; {@link #close()} stops it and writes it to {@code destination}.
+     */
+    public static ContentionRecording start(Path destination) {
+        return new ContentionRecording(destination);
+    }
+
+    /**
+     * Starts a recording if the arguments contain {@code --jfr=<file>}.
+     *
+     * @return the recording, or null if none was requested
+     */
+    public static ContentionRecording startFromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(ARG_PREFIX)) {
+                return start(Paths.get(arg.substring(ARG_PREFIX.length())));
+            }
+        }
+        return null;
+    }
+
+    public Path getDestination() {
+        return destination;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            recording.stop();
+            recording.dump(destination);
+        } finally {
+            recording.close();
+        }
+    }
+}
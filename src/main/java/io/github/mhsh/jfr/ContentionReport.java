@@ -0,0 +1,109 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline analyzer that turns a {@code .jfr} file into a per-thread contention
+ * breakdown: time blocked entering the monitor, time holding it (without the
+ * time spent in {@code wait()}), time in {@code wait()}, time processing items
+ * outside the lock and time in {@code join()}.
+ *
+ * <p>Usage: {@code java io.github.mhsh.jfr.ContentionReport recording.jfr}
+ */
+public class ContentionReport {
+    private static final String EVENT_PREFIX = "io.github.mhsh.";
+
+    private final Map<String, ThreadTotals> threads = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ContentionReport <recording.jfr>");
+            System.exit(1);
+        }
+        ContentionReport report = ContentionReport.read(Paths.get(args[0]));
+        report.print();
+    }
+
+    public static ContentionReport read(Path file) throws IOException {
+        ContentionReport report = new ContentionReport();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                report.add(recording.readEvent());
+            }
+        }
+        return report;
+    }
+
+    private void add(RecordedEvent event) {
+        String name = event.getEventType().getName();
+        if (!name.startsWith(EVENT_PREFIX)) {
+            return;
+        }
+        RecordedThread thread = event.getThread();
+        String threadName = thread == null ? "<unknown>" : thread.getJavaName();
+        ThreadTotals totals = threads.computeIfAbsent(threadName, k -> new ThreadTotals());
+        long nanos = event.getDuration().toNanos();
+        switch (name.substring(EVENT_PREFIX.length())) {
+            case "MonitorAcquire":
+                totals.acquireNanos += nanos;
+                totals.acquires++;
+                break;
+            case "MonitorHold":
+                totals.holdNanos += nanos;
+                break;
+            case "MonitorWait":
+                totals.waitNanos += nanos;
+                totals.waits++;
+                break;
+            case "WorkItem":
+                totals.workNanos += nanos;
+                totals.items++;
+                break;
+            case "JoinWait":
+                totals.joinNanos += nanos;
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void print() {
+        if (threads.isEmpty()) {
+            System.out.println("No " + EVENT_PREFIX + "* events found; were the events enabled?");
+            return;
+        }
+        System.out.printf("%-24s %9s %11s %11s %7s %11s %7s %11s %11s%n",
+                "Thread", "acquires", "acquire ms", "hold ms", "waits", "wait ms", "items", "work ms", "join ms");
+        for (Map.Entry<String, ThreadTotals> entry : threads.entrySet()) {
+            ThreadTotals t = entry.getValue();
+            System.out.printf("%-24s %9d %11.2f %11.2f %7d %11.2f %7d %11.2f %11.2f%n",
+                    entry.getKey(), t.acquires, millis(t.acquireNanos),
+                    // wait() releases the monitor, so it is not hold time
+                    millis(Math.max(0L, t.holdNanos - t.waitNanos)),
+                    t.waits, millis(t.waitNanos), t.items, millis(t.workNanos), millis(t.joinNanos));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class ThreadTotals {
+        long acquires;
+        long acquireNanos;
+        long holdNanos;
+        long waits;
+        long waitNanos;
+        long items;
+        long workNanos;
+        long joinNanos;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time a thread spends in {@code Thread.join()} waiting for a worker.
+ */
+@Name("io.github.mhsh.JoinWait")
+@Label("Join Wait")
+@Description("Time spent in Thread.join() waiting for a worker")
+@Category({"Multithread Examples", "Work"})
+@Enabled(false)
+@StackTrace(false)
+public class JoinWaitEvent extends Event {
+    @Label("Joined Thread")
+    Thread joinedThread;
+
+    public static JoinWaitEvent begin(Thread joinedThread) {
+        JoinWaitEvent event = new JoinWaitEvent();
+        event.joinedThread = joinedThread;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time a thread spends blocked before it enters a {@code synchronized} block.
+ */
+@Name("io.github.mhsh.MonitorAcquire")
+@Label("Monitor Acquire")
+@Description("Time spent blocked entering a synchronized block")
+public class MonitorAcquireEvent extends MonitorEvent {
+
+    public static MonitorAcquireEvent begin(String monitor) {
+        MonitorAcquireEvent event = new MonitorAcquireEvent();
+        event.monitor = monitor;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Common fields of the monitor events: which monitor, which item the thread
+ * was working on and how full the buffer was when the event ended. The thread
+ * and the start time and duration are recorded by JFR itself.
+ *
+ * <p>All of these events are disabled by default. While they are disabled,
+ * {@code begin()} and {@link #commit(long, int)} do nothing and the JIT can
+ * remove the event object altogether, so they can stay in the code.
+ */
+@Category({"Multithread Examples", "Monitor"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class MonitorEvent extends Event {
+    @Label("Monitor")
+    String monitor;
+
+    @Label("Item Id")
+    long itemId;
+
+    @Label("Buffer Size")
+    int bufferSize;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     *
+     * @param itemId the item produced or consumed, or -1 if there was none
+     */
+    public void commit(long itemId, int bufferSize) {
+        end();
+        if (shouldCommit()) {
+            this.itemId = itemId;
+            this.bufferSize = bufferSize;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time from entering a {@code synchronized} block to leaving it. Any
+ * {@code wait()} inside is included; {@link ContentionReport} subtracts it.
+ */
+@Name("io.github.mhsh.MonitorHold")
+@Label("Monitor Hold")
+@Description("Time from entering a synchronized block to leaving it, including any wait() inside")
+public class MonitorHoldEvent extends MonitorEvent {
+
+    public static MonitorHoldEvent begin(String monitor) {
+        MonitorHoldEvent event = new MonitorHoldEvent();
+        event.monitor = monitor;
+        event.begin();
+        return event;
+    }
+}
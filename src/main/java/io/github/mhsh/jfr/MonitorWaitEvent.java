@@ -0,0 +1,21 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time a thread spends in {@code wait()} on a monitor.
+ */
+@Name("io.github.mhsh.MonitorWait")
+@Label("Monitor Wait")
+@Description("Time spent in wait() on a monitor")
+public class MonitorWaitEvent extends MonitorEvent {
+
+    public static MonitorWaitEvent begin(String monitor) {
+        MonitorWaitEvent event = new MonitorWaitEvent();
+        event.monitor = monitor;
+        event.begin();
+        return event;
+    }
+}
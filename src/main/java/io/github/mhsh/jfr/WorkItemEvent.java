@@ -0,0 +1,41 @@
+package io.github.mhsh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Processing of one item outside any lock, by a consumer or a join worker.
+ */
+@Name("io.github.mhsh.WorkItem")
+@Label("Work Item")
+@Description("Time spent processing one item outside any lock")
+@Category({"Multithread Examples", "Work"})
+@Enabled(false)
+@StackTrace(false)
+public class WorkItemEvent extends Event {
+    @Label("Task")
+    String task;
+
+    @Label("Item Id")
+    long itemId;
+
+    public static WorkItemEvent begin(String task) {
+        WorkItemEvent event = new WorkItemEvent();
+        event.task = task;
+        event.begin();
+        return event;
+    }
+
+    public void commit(long itemId) {
+        end();
+        if (shouldCommit()) {
+            this.itemId = itemId;
+            commit();
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package io.github.mhsh.joinexample;
 
+import java.util.concurrent.ThreadFactory;
+
 /**
  * This class demonstrates the issues that can occur 
  * when not using the join() method in multithreaded applications.
  */
 public class JoinExample {
     
+    private final ThreadFactory threadFactory;
+    
+    public JoinExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public JoinExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
     public void runWithoutJoin() {
         System.out.println("=== Running example WITHOUT join() ===");
         
@@ -20,7 +35,7 @@ public class JoinExample {
         // Create and start worker threads
         for (int i = 0; i < NUM_THREADS; i++) {
             final int threadId = i;
-            workers[i] = new Thread(() -> {
+            workers[i] = threadFactory.newThread(() -> {
                 System.out.println("Thread-" + threadId + ": Starting work");
                 
                 // Simulate some work
@@ -1,11 +1,30 @@
 package io.github.mhsh.joinexample;
 
+import io.github.mhsh.jfr.ContentionRecording;
+import io.github.mhsh.threads.VirtualThreads;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+
 /**
  * Main class to demonstrate why the join() method is important in multithreaded applications.
  */
 public class JoinImportanceMain {
     
     public static void main(String[] args) {
+        // Pass --virtual to run the workers as virtual threads (Java 21 build)
+        ThreadFactory threadFactory = Thread::new;
+        if (Arrays.asList(args).contains("--virtual")) {
+            if (VirtualThreads.isSupported()) {
+                threadFactory = VirtualThreads.factory("virtual-worker-");
+            } else {
+                System.out.println("Virtual threads are not available (Java 21 and the java21 build profile are needed), using platform threads");
+            }
+        }
+        // Pass --jfr=<file> to record the monitor and work JFR events to <file>
+        ContentionRecording recording = ContentionRecording.startFromArgs(args);
+        
         System.out.println("\n====== DEMONSTRATING THE IMPORTANCE OF join() IN MULTITHREADING ======\n");
         
         // Explanation of what join() does
@@ -16,7 +35,7 @@ public class JoinImportanceMain {
         System.out.println("\nCOMPARISON OF BEHAVIOR WITH AND WITHOUT join():\n");
         
         // Run example without join()
-        JoinExample example1 = new JoinExample();
+        JoinExample example1 = new JoinExample(threadFactory);
         example1.runWithoutJoin();
         
         System.out.println("\n-------------------------------------------------\n");
@@ -29,17 +48,37 @@ public class JoinImportanceMain {
         }
         
         // Run example with join()
-        JoinSolutionExample example2 = new JoinSolutionExample();
+        JoinSolutionExample example2 = new JoinSolutionExample(threadFactory);
         example2.runWithJoin();
         
         System.out.println("\n-------------------------------------------------\n");
         
+        // Run the same work with fork/join work stealing
+        example2.runWithForkJoin();
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
+        // Consume results in completion order instead of creation order
+        example2.runWithCompletionOrder();
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
         // Run example with join timeout
         JoinTimeoutExample example3 = new JoinTimeoutExample();
         example3.runWithJoinTimeout();
         
         System.out.println("\n-------------------------------------------------\n");
         
+        // Run the same timeout with a structured task group
+        example3.runWithTaskGroup();
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
+        // Run the same timeout as a deadline on a timing wheel
+        example3.runWithTimingWheel();
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
         // Summary of benefits of join()
         System.out.println("\nSUMMARY: BENEFITS OF USING join()\n");
         System.out.println("1. Coordination: Ensures that the main thread waits for worker threads to complete.");
@@ -49,5 +88,15 @@ public class JoinImportanceMain {
         System.out.println("5. Timeout Control: join(milliseconds) allows waiting for a maximum time period.");
         
         System.out.println("\n====== END OF DEMONSTRATION ======\n");
+        
+        if (recording != null) {
+            try {
+                recording.close();
+                System.out.println("JFR recording written to " + recording.getDestination());
+                System.out.println("Analyze it with: java io.github.mhsh.jfr.ContentionReport " + recording.getDestination());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 }
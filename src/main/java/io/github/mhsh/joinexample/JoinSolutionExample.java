@@ -1,11 +1,40 @@
 package io.github.mhsh.joinexample;
 
+import io.github.mhsh.jfr.JoinWaitEvent;
+import io.github.mhsh.jfr.WorkItemEvent;
+import io.github.mhsh.joinexample.completion.Completion;
+import io.github.mhsh.joinexample.completion.CompletionAggregator;
+import io.github.mhsh.padding.PaddedLong;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * This class demonstrates the proper use of the join() method 
  * to ensure that the main thread waits for all worker threads to complete.
  */
 public class JoinSolutionExample {
     
+    private final ThreadFactory threadFactory;
+    
+    public JoinSolutionExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public JoinSolutionExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
     public void runWithJoin() {
         System.out.println("=== Running example WITH join() ===");
         
@@ -20,17 +49,19 @@ public class JoinSolutionExample {
         // Create and start worker threads
         for (int i = 0; i < NUM_THREADS; i++) {
             final int threadId = i;
-            workers[i] = new Thread(() -> {
+            workers[i] = threadFactory.newThread(() -> {
                 System.out.println("Thread-" + threadId + ": Starting work");
                 
                 // Simulate some work
                 for (int j = 0; j < WORK_ITEMS; j++) {
+                    WorkItemEvent work = WorkItemEvent.begin("JoinSolutionExample.worker");
                     try {
                         Thread.sleep((int)(Math.random() * 10)); // Random sleep to simulate different work speeds
                     } catch (InterruptedException e) {
                         e.printStackTrace();
                     }
                     counterHolder.increment();
+                    work.commit(j);
                     System.out.println("Thread-" + threadId + ": Completed item " + j);
                 }
                 
@@ -46,7 +77,9 @@ public class JoinSolutionExample {
         // Wait for all threads to complete using join()
         for (Thread worker : workers) {
             try {
+                JoinWaitEvent joinWait = JoinWaitEvent.begin(worker);
                 worker.join(); // This causes the main thread to wait until this worker thread completes
+                joinWait.commit();
                 System.out.println("Main thread: A worker thread has completed");
             } catch (InterruptedException e) {
                 e.printStackTrace();
@@ -60,16 +93,209 @@ public class JoinSolutionExample {
         System.out.println("Main thread: Program execution completing...");
     }
     
-    // Simple class to hold the counter
+    /**
+     * Runs the same total work twice: first with the fixed per-thread slices of
+     * runWithJoin(), then on a ForkJoinPool that recursively splits the whole
+     * item range and lets idle workers steal the pending halves. The fork/join
+     * run sums per-task partial counts instead of sharing a CounterHolder.
+     * Both runs report elapsed time and load imbalance (the busiest worker's
+     * busy time divided by the average).
+     */
+    public void runWithForkJoin() {
+        System.out.println("=== Running example with fork/join work stealing ===");
+        
+        final int NUM_THREADS = 5;
+        final int WORK_ITEMS = 10;
+        final int TOTAL_ITEMS = NUM_THREADS * WORK_ITEMS;
+        
+        // Fixed slices, joined in creation order
+        Map<String, LongAdder> sliceBusy = new ConcurrentHashMap<>();
+        CounterHolder counterHolder = new CounterHolder();
+        Thread[] workers = new Thread[NUM_THREADS];
+        long start = System.nanoTime();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            workers[i] = threadFactory.newThread(() -> {
+                for (int j = 0; j < WORK_ITEMS; j++) {
+                    doItem(sliceBusy);
+                    synchronized (counterHolder) {
+                        counterHolder.increment();
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        long sliceMillis = (System.nanoTime() - start) / 1_000_000;
+        double sliceImbalance = imbalance(sliceBusy, NUM_THREADS);
+        
+        // Recursive splitting with work stealing
+        Map<String, LongAdder> stealBusy = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(NUM_THREADS);
+        start = System.nanoTime();
+        int forkJoinCount;
+        try {
+            forkJoinCount = pool.invoke(new WorkRangeTask(0, TOTAL_ITEMS, stealBusy));
+        } finally {
+            pool.shutdown();
+        }
+        long stealMillis = (System.nanoTime() - start) / 1_000_000;
+        double stealImbalance = imbalance(stealBusy, NUM_THREADS);
+        
+        System.out.println("Main thread: Fixed slices: " + counterHolder.getCount() + " items in " + sliceMillis + 
+                          " ms, load imbalance " + String.format("%.2f", sliceImbalance));
+        System.out.println("Main thread: Fork/join:    " + forkJoinCount + " items in " + stealMillis + 
+                          " ms, load imbalance " + String.format("%.2f", stealImbalance) + 
+                          ", steals: " + pool.getStealCount());
+        System.out.println("Main thread: Expected counter value: " + TOTAL_ITEMS);
+    }
+    
+    /**
+     * Instead of joining workers in creation order, every worker publishes its
+     * partial count to a {@link CompletionAggregator} and the main thread folds
+     * the counts in as they arrive. Worker 0 is made deliberately slow: first
+     * the main thread acts on the first three results without waiting for it,
+     * then it folds in the rest.
+     */
+    public void runWithCompletionOrder() {
+        System.out.println("=== Running example with completion-order aggregation ===");
+        
+        final int NUM_THREADS = 5;
+        final int WORK_ITEMS = 10;
+        final int FIRST_K = 3;
+        
+        CompletionAggregator<Integer> aggregator = new CompletionAggregator<>(NUM_THREADS);
+        Thread[] workers = new Thread[NUM_THREADS];
+        long start = System.nanoTime();
+        
+        for (int i = 0; i < NUM_THREADS; i++) {
+            final int threadId = i;
+            workers[i] = threadFactory.newThread(() -> {
+                int partial = 0;
+                try {
+                    for (int j = 0; j < WORK_ITEMS; j++) {
+                        // Worker 0 is the slow one that creation-order joins would wait for first
+                        Thread.sleep(threadId == 0 ? 50 : (int)(Math.random() * 10));
+                        partial++;
+                    }
+                    aggregator.publish(threadId, partial);
+                } catch (InterruptedException | RuntimeException e) {
+                    aggregator.publishFailure(threadId, e);
+                }
+            });
+            workers[i].start();
+        }
+        
+        try {
+            // Act on the first K results as soon as they are in
+            int firstTotal = aggregator.foldFirst(FIRST_K, 0, Integer::sum, 10, TimeUnit.SECONDS);
+            System.out.println("Main thread: First " + FIRST_K + " of " + NUM_THREADS + " results after " + 
+                              (System.nanoTime() - start) / 1_000_000 + " ms, partial total: " + firstTotal);
+            
+            // Then fold in the stragglers one by one, in the order they finish
+            int total = firstTotal;
+            while (aggregator.remaining() > 0) {
+                Completion<Integer> completion = aggregator.next();
+                if (completion.isFailure()) {
+                    System.out.println("Main thread: Worker " + completion.workerId() + " failed: " + completion.failure());
+                    continue;
+                }
+                total += completion.value();
+                System.out.println("Main thread: Worker " + completion.workerId() + " finished after " + 
+                                  (completion.completedAtNanos() - start) / 1_000_000 + " ms, running total: " + total);
+            }
+            
+            System.out.println("Main thread: Final counter value: " + total);
+            System.out.println("Main thread: Expected counter value: " + (NUM_THREADS * WORK_ITEMS));
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            e.printStackTrace();
+        }
+        
+        // Every result has been consumed, so these joins return immediately
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    // Simulates one item of uneven cost and records it as busy time of the current thread
+    private static void doItem(Map<String, LongAdder> busyByThread) {
+        long itemStart = System.nanoTime();
+        try {
+            Thread.sleep((int)(Math.random() * 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        busyByThread.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder())
+                .add(System.nanoTime() - itemStart);
+    }
+    
+    // Busiest worker's busy time divided by the mean over all workers, including
+    // any that never got an item; 1.0 is a perfect balance
+    private static double imbalance(Map<String, LongAdder> busyByThread, int workers) {
+        long max = 0L;
+        long total = 0L;
+        for (LongAdder busy : busyByThread.values()) {
+            long value = busy.sum();
+            max = Math.max(max, value);
+            total += value;
+        }
+        return total == 0L ? 1.0 : (double) max * workers / total;
+    }
+    
+    // Counts the items in [from, to), splitting the range until it is small enough to run directly
+    private static class WorkRangeTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 2;
+        
+        private final int from;
+        private final int to;
+        private final Map<String, LongAdder> busyByThread;
+        
+        WorkRangeTask(int from, int to, Map<String, LongAdder> busyByThread) {
+            this.from = from;
+            this.to = to;
+            this.busyByThread = busyByThread;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (to - from <= THRESHOLD) {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    doItem(busyByThread);
+                    count++;
+                }
+                return count;
+            }
+            int mid = (from + to) >>> 1;
+            WorkRangeTask left = new WorkRangeTask(from, mid, busyByThread);
+            left.fork(); // Pushed on this worker's deque, where an idle worker can steal it
+            int rightCount = new WorkRangeTask(mid, to, busyByThread).compute();
+            return left.join() + rightCount;
+        }
+    }
+    
+    // Simple class to hold the counter. The count sits on a cache line of its own,
+    // so the workers' increments do not slow down reads of whatever was allocated next to it
     private static class CounterHolder {
-        private int count = 0;
+        private final PaddedLong count = new PaddedLong();
         
         public void increment() {
-            count++;
+            // Plain read and write, exactly like count++ on an ordinary field
+            count.setPlain(count.getPlain() + 1);
         }
         
-        public int getCount() {
-            return count;
+        public long getCount() {
+            return count.getPlain();
         }
     }
 }
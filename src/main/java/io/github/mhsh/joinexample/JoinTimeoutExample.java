@@ -1,5 +1,16 @@
 package io.github.mhsh.joinexample;
 
+import io.github.mhsh.joinexample.taskgroup.Subtask;
+import io.github.mhsh.joinexample.taskgroup.TaskGroup;
+import io.github.mhsh.joinexample.timer.Timeout;
+import io.github.mhsh.joinexample.timer.TimingWheel;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * This class demonstrates the use of join() with a timeout parameter.
  * This is useful when you want to wait for threads to complete, but only up to a certain time limit.
@@ -59,4 +70,165 @@ public class JoinTimeoutExample {
             System.out.println("Main thread: In a real application, you might need to handle this case");
         }
     }
+    
+    /**
+     * The same long-running work inside a {@link TaskGroup} with a 2 second
+     * deadline, next to a sibling task and a nested group. When the deadline
+     * passes every subtask, including the nested ones, is interrupted at once,
+     * and close() returns as soon as they have all stopped: no fixed sleep,
+     * and no thread left running behind the caller's back.
+     */
+    public void runWithTaskGroup() {
+        System.out.println("=== Running example with a deadline-scoped task group ===");
+        
+        long start = System.nanoTime();
+        try (TaskGroup group = TaskGroup.open(2, TimeUnit.SECONDS)) {
+            Subtask<Integer> longRunning = group.fork(() -> {
+                System.out.println("Long-running task: Starting work");
+                for (int i = 0; i < 10; i++) {
+                    System.out.println("Long-running task: Working... " + (i + 1) + "/10");
+                    Thread.sleep(500); // Interrupted as soon as the group is cancelled
+                }
+                System.out.println("Long-running task: Work completed");
+                return 10;
+            });
+            
+            Subtask<Integer> quick = group.fork(() -> {
+                Thread.sleep(300);
+                System.out.println("Quick task: Done");
+                return 1;
+            });
+            
+            // A nested group: its subtasks never outlive the outer deadline
+            group.fork(() -> {
+                try (TaskGroup nested = TaskGroup.open(1, TimeUnit.MINUTES)) {
+                    nested.fork(() -> {
+                        long spins = 0;
+                        // CPU-bound work that polls for cancellation instead of sleeping
+                        while (!TaskGroup.cancellationRequested()) {
+                            spins++;
+                        }
+                        System.out.println("Nested task: Cancelled after " + spins + " iterations");
+                        return spins;
+                    });
+                    nested.join();
+                }
+                return 0;
+            });
+            
+            System.out.println("Main thread: Waiting for the task group (deadline 2 seconds)");
+            try {
+                group.join();
+                System.out.println("Main thread: All tasks completed within the deadline");
+            } catch (TimeoutException e) {
+                System.out.println("Main thread: Deadline passed, remaining tasks were cancelled");
+            } catch (ExecutionException e) {
+                System.out.println("Main thread: A task failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            
+            System.out.println("Main thread: Quick task " + quick.state() + ", long-running task " + longRunning.state());
+        }
+        
+        // close() has returned, so every task has already stopped
+        System.out.println("Main thread: All tasks stopped after " + 
+                          (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * The join(timeout) example with the deadline on a {@link TimingWheel}:
+     * instead of the main thread blocking in join(2000) and then deciding
+     * whether to interrupt, the wheel interrupts the worker when the deadline
+     * passes, and the main thread simply joins until the worker has stopped.
+     * Then the cost of arming and cancelling a deadline is measured with
+     * thousands of deadlines in flight, on the wheel and on a
+     * ScheduledThreadPoolExecutor.
+     */
+    public void runWithTimingWheel() {
+        System.out.println("=== Running example with deadlines on a timing wheel ===");
+        
+        try (TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, "join-deadlines")) {
+            Thread longRunningThread = new Thread(() -> {
+                System.out.println("Long-running thread: Starting work");
+                try {
+                    for (int i = 0; i < 10; i++) {
+                        System.out.println("Long-running thread: Working... " + (i + 1) + "/10");
+                        Thread.sleep(500);
+                    }
+                } catch (InterruptedException e) {
+                    System.out.println("Long-running thread: I was interrupted!");
+                    return;
+                }
+                System.out.println("Long-running thread: Work completed");
+            });
+            
+            long start = System.nanoTime();
+            longRunningThread.start();
+            // The wheel's ticker interrupts the thread when the deadline passes
+            Timeout deadline = wheel.schedule(longRunningThread::interrupt, 2, TimeUnit.SECONDS);
+            System.out.println("Main thread: Deadline of 2 seconds armed, joining without a timeout");
+            try {
+                longRunningThread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            // No effect if the deadline already fired; otherwise it never will
+            deadline.cancel();
+            System.out.println("Main thread: Thread stopped after " + (System.nanoTime() - start) / 1_000_000 + 
+                              " ms, deadline " + (deadline.isExpired() ? "expired" : "cancelled"));
+            
+            // Arm and cancel one deadline per bounded task, with many others in flight
+            System.out.println("Main thread: Cost of arming and cancelling one deadline:");
+            // One discarded round so that both timers are compiled before they are compared
+            measureWheel(wheel, 1_000);
+            measureExecutor(1_000);
+            for (int inFlight : new int[] {1_000, 10_000, 100_000}) {
+                double wheelNanos = measureWheel(wheel, inFlight);
+                double executorNanos = measureExecutor(inFlight);
+                System.out.println(String.format("  %,7d in flight: timing wheel %,6.0f ns, scheduled executor %,6.0f ns",
+                        inFlight, wheelNanos, executorNanos));
+            }
+        }
+    }
+    
+    private static final long FAR_DEADLINE_SECONDS = 60;
+    private static final int MEASURED_DEADLINES = 100_000;
+    
+    // Average time to schedule and cancel one deadline while inFlight others are pending
+    private static double measureWheel(TimingWheel wheel, int inFlight) {
+        Runnable noop = () -> { };
+        Timeout[] background = new Timeout[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            background[i] = wheel.schedule(noop, FAR_DEADLINE_SECONDS, TimeUnit.SECONDS);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_DEADLINES; i++) {
+            wheel.schedule(noop, FAR_DEADLINE_SECONDS, TimeUnit.SECONDS).cancel();
+        }
+        long elapsed = System.nanoTime() - start;
+        for (Timeout timeout : background) {
+            timeout.cancel();
+        }
+        return (double) elapsed / MEASURED_DEADLINES;
+    }
+    
+    private static double measureExecutor(int inFlight) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        try {
+            Runnable noop = () -> { };
+            for (int i = 0; i < inFlight; i++) {
+                executor.schedule(noop, FAR_DEADLINE_SECONDS, TimeUnit.SECONDS);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_DEADLINES; i++) {
+                ScheduledFuture<?> future = executor.schedule(noop, FAR_DEADLINE_SECONDS, TimeUnit.SECONDS);
+                future.cancel(false);
+            }
+            return (double) (System.nanoTime() - start) / MEASURED_DEADLINES;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
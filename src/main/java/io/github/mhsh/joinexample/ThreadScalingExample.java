@@ -0,0 +1,115 @@
+package io.github.mhsh.joinexample;
+
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+import io.github.mhsh.threads.VirtualThreads;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class runs the JoinSolutionExample workload (every worker sleeps a few
+ * milliseconds per item and counts it, then is joined) with a growing number
+ * of threads, once on platform threads and once on virtual threads, and
+ * reports completion time and memory footprint for each.
+ *
+ * <p>Virtual threads need Java 21 and a build with the {@code java21} profile;
+ * on older runtimes only the platform-thread runs are made. Platform threads
+ * are not started beyond {@link #PLATFORM_THREAD_LIMIT}, since each one
+ * reserves a native stack and large counts can exhaust the OS.
+ */
+public class ThreadScalingExample {
+    
+    private static final int PLATFORM_THREAD_LIMIT = 10_000;
+    private static final int WORK_ITEMS = 10;
+    
+    public static void main(String[] args) {
+        int[] threadCounts = {5, 1_000, 10_000, 100_000};
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        new ThreadScalingExample().runComparison(threadCounts);
+    }
+    
+    public void runComparison(int[] threadCounts) {
+        System.out.println("=== Platform threads vs virtual threads ===");
+        if (!VirtualThreads.isSupported()) {
+            System.out.println("Virtual threads are not available (Java 21 and the java21 build profile are needed)");
+        }
+        
+        for (int numThreads : threadCounts) {
+            if (numThreads <= PLATFORM_THREAD_LIMIT) {
+                run("platform", Thread::new, numThreads);
+            } else {
+                System.out.println("platform: " + numThreads + " threads skipped (limit is " + PLATFORM_THREAD_LIMIT + ")");
+            }
+            if (VirtualThreads.isSupported()) {
+                run("virtual", VirtualThreads.factory("virtual-worker-"), numThreads);
+            }
+        }
+    }
+    
+    private void run(String kind, ThreadFactory threadFactory, int numThreads) {
+        Counter counter = CounterStrategy.STRIPED.create();
+        Thread[] workers = new Thread[numThreads];
+        
+        System.gc();
+        long heapBefore = usedHeap();
+        long nativeBefore = committedVirtualMemory();
+        long start = System.nanoTime();
+        
+        int started = 0;
+        try {
+            for (; started < numThreads; started++) {
+                workers[started] = threadFactory.newThread(() -> {
+                    for (int j = 0; j < WORK_ITEMS; j++) {
+                        try {
+                            Thread.sleep((int)(Math.random() * 10));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        counter.increment();
+                    }
+                });
+                workers[started].start();
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.println(kind + ": could only start " + started + " of " + numThreads + " threads: " + e.getMessage());
+        }
+        
+        // Footprint while all workers are alive
+        long heapUsed = usedHeap() - heapBefore;
+        long nativeUsed = committedVirtualMemory() - nativeBefore;
+        
+        for (int i = 0; i < started; i++) {
+            try {
+                workers[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println(kind + ": " + started + " threads, " + counter.sum() + "/" + ((long) started * WORK_ITEMS) + 
+                          " items in " + elapsedMillis + " ms, heap +" + (heapUsed / 1024) + " KB" + 
+                          (nativeBefore < 0 ? "" : ", committed memory +" + (nativeUsed / 1024) + " KB"));
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    private static long committedVirtualMemory() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getCommittedVirtualMemorySize();
+        }
+        return -1L;
+    }
+}
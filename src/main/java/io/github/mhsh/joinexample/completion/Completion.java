@@ -0,0 +1,47 @@
+package io.github.mhsh.joinexample.completion;
+
+/**
+ * One worker's published outcome: either a partial result or a failure.
+ */
+public final class Completion<T> {
+    private final int workerId;
+    private final T value;
+    private final Throwable failure;
+    private final long completedAtNanos;
+
+    Completion(int workerId, T value, Throwable failure) {
+        this.workerId = workerId;
+        this.value = value;
+        this.failure = failure;
+        this.completedAtNanos = System.nanoTime();
+    }
+
+    public int workerId() {
+        return workerId;
+    }
+
+    /**
+     * Returns the partial result, or null if the worker failed.
+     */
+    public T value() {
+        return value;
+    }
+
+    /**
+     * Returns the worker's exception, or null if it succeeded.
+     */
+    public Throwable failure() {
+        return failure;
+    }
+
+    public boolean isFailure() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the result was published.
+     */
+    public long completedAtNanos() {
+        return completedAtNanos;
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.mhsh.joinexample.completion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Collects partial results from a fixed number of workers in the order they
+ * finish, instead of joining the workers in creation order. Each worker calls
+ * {@link #publish} (or {@link #publishFailure}) once; the caller consumes
+ * results as they arrive, either one by one with {@link #next()} or folded
+ * with {@link #fold} and {@link #foldFirst}, so a slow worker delays only its
+ * own contribution.
+ *
+ * <p>Results are consumed exactly once: after {@code foldFirst(k, ...)} the
+ * remaining {@code n - k} results can still be taken later.
+ */
+public class CompletionAggregator<T> {
+    private final int expected;
+    private final BlockingQueue<Completion<T>> completed;
+    private int consumed;
+
+    /**
+     * @param expected the number of workers that will publish exactly once
+     */
+    public CompletionAggregator(int expected) {
+        if (expected < 1) {
+            throw new IllegalArgumentException("Expected count must be positive: " + expected);
+        }
+        this.expected = expected;
+        // Every worker publishes once, so the queue can never fill up
+        this.completed = new ArrayBlockingQueue<>(expected);
+    }
+
+    /**
+     * Publishes a worker's partial result. Called by the worker thread.
+     */
+    public void publish(int workerId, T value) {
+        enqueue(new Completion<>(workerId, value, null));
+    }
+
+    /**
+     * Publishes a worker's failure. Called by the worker thread.
+     */
+    public void publishFailure(int workerId, Throwable failure) {
+        enqueue(new Completion<>(workerId, null, failure));
+    }
+
+    /**
+     * Returns the number of results not yet consumed, published or not.
+     * Only meant for the consuming thread.
+     */
+    public int remaining() {
+        return expected - consumed;
+    }
+
+    /**
+     * Waits for and returns the next result to complete.
+     *
+     * @throws IllegalStateException if all expected results were already consumed
+     */
+    public Completion<T> next() throws InterruptedException {
+        checkRemaining();
+        Completion<T> completion = completed.take();
+        consumed++;
+        return completion;
+    }
+
+    /**
+     * Waits up to the timeout for the next result, returning null if none arrives.
+     */
+    public Completion<T> next(long timeout, TimeUnit unit) throws InterruptedException {
+        checkRemaining();
+        Completion<T> completion = completed.poll(timeout, unit);
+        if (completion != null) {
+            consumed++;
+        }
+        return completion;
+    }
+
+    /**
+     * Folds every remaining result into {@code identity}, in completion order.
+     *
+     * @throws ExecutionException if a worker failed; later results are left unconsumed
+     */
+    public <R> R fold(R identity, BiFunction<R, ? super T, R> folder)
+            throws InterruptedException, ExecutionException {
+        R accumulated = identity;
+        while (remaining() > 0) {
+            accumulated = foldOne(accumulated, folder, next());
+        }
+        return accumulated;
+    }
+
+    /**
+     * Folds the first {@code k} results to complete and returns without waiting
+     * for the others.
+     *
+     * @throws TimeoutException   if fewer than {@code k} results arrived within the timeout
+     * @throws ExecutionException if one of those results is a failure
+     */
+    public <R> R foldFirst(int k, R identity, BiFunction<R, ? super T, R> folder, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (k < 1 || k > remaining()) {
+            throw new IllegalArgumentException("Cannot take " + k + " of " + remaining() + " remaining results");
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        R accumulated = identity;
+        for (int i = 0; i < k; i++) {
+            Completion<T> completion = next(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (completion == null) {
+                throw new TimeoutException("Only " + i + " of " + k + " results arrived in time");
+            }
+            accumulated = foldOne(accumulated, folder, completion);
+        }
+        return accumulated;
+    }
+
+    private <R> R foldOne(R accumulated, BiFunction<R, ? super T, R> folder, Completion<T> completion)
+            throws ExecutionException {
+        if (completion.isFailure()) {
+            throw new ExecutionException("Worker " + completion.workerId() + " failed", completion.failure());
+        }
+        return folder.apply(accumulated, completion.value());
+    }
+
+    private void enqueue(Completion<T> completion) {
+        if (!completed.offer(completion)) {
+            throw new IllegalStateException("More than " + expected + " results published");
+        }
+    }
+
+    private void checkRemaining() {
+        if (remaining() <= 0) {
+            throw new IllegalStateException("All " + expected + " results have been consumed");
+        }
+    }
+}
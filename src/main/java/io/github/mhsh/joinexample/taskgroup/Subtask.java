@@ -0,0 +1,73 @@
+package io.github.mhsh.joinexample.taskgroup;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A task forked in a {@link TaskGroup}. Its result can be read once the group
+ * has been joined or closed.
+ */
+public final class Subtask<T> {
+
+    public enum State {
+        /** Not finished yet. */
+        RUNNING,
+        /** Completed with a result. */
+        SUCCESS,
+        /** Threw an exception, which cancelled its siblings. */
+        FAILED,
+        /** Stopped, or never started, because the group was cancelled. */
+        CANCELLED
+    }
+
+    private final Callable<? extends T> task;
+    private volatile State state = State.RUNNING;
+    private volatile T result;
+    private volatile Throwable exception;
+    // Written once before the thread starts, read by the group
+    Thread thread;
+
+    Subtask(Callable<? extends T> task) {
+        this.task = task;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Returns the result of a successful subtask.
+     *
+     * @throws IllegalStateException if the subtask did not succeed
+     */
+    public T get() {
+        if (state != State.SUCCESS) {
+            throw new IllegalStateException("Subtask has not succeeded: " + state);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the exception of a failed subtask, or null.
+     */
+    public Throwable exception() {
+        return exception;
+    }
+
+    Callable<? extends T> task() {
+        return task;
+    }
+
+    void succeed(T value) {
+        result = value;
+        state = State.SUCCESS;
+    }
+
+    void fail(Throwable t) {
+        exception = t;
+        state = State.FAILED;
+    }
+
+    void cancelled() {
+        state = State.CANCELLED;
+    }
+}
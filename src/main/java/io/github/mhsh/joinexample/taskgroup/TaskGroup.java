@@ -0,0 +1,319 @@
+package io.github.mhsh.joinexample.taskgroup;
+
+import io.github.mhsh.joinexample.timer.Timeout;
+import io.github.mhsh.joinexample.timer.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A group of subtasks that share one deadline and one fate, as the structured
+ * replacement for {@code join(timeout)} followed by {@code interrupt()} and a
+ * fixed sleep:
+ * <ul>
+ *   <li>when the deadline passes, or any subtask fails, every remaining
+ *       subtask is cancelled at once (its thread is interrupted and
+ *       {@link #cancellationRequested()} turns true for it);</li>
+ *   <li>a group opened inside a subtask is a child of that subtask's group:
+ *       it never outlives the parent's deadline and is cancelled with it;</li>
+ *   <li>{@link #close()} cancels whatever is still running and returns as
+ *       soon as every subtask has actually stopped, not after a fixed wait.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * try (TaskGroup group = TaskGroup.open(2, TimeUnit.SECONDS)) {
+ *     Subtask<Integer> a = group.fork(() -> slowCall());
+ *     Subtask<Integer> b = group.fork(() -> otherCall());
+ *     group.join();
+ *     return a.get() + b.get();
+ * }
+ * }</pre>
+ *
+ * Cancellation is cooperative: a subtask that ignores interrupts and never
+ * checks {@link #cancellationRequested()} keeps {@code close()} waiting.
+ *
+ * <p>Deadlines of all groups share one {@link TimingWheel}, so opening and
+ * closing a group costs the same however many groups are in flight.
+ */
+public final class TaskGroup implements AutoCloseable {
+    private static final ThreadLocal<TaskGroup> CURRENT = new ThreadLocal<>();
+    private static final TimingWheel DEADLINES = new TimingWheel(1, TimeUnit.MILLISECONDS, "task-group-deadlines");
+
+    private final TaskGroup parent;
+    private final ThreadFactory threadFactory;
+    private final long deadlineNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Timeout deadlineTimer;
+
+    // Guarded by lock
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final List<TaskGroup> children = new ArrayList<>();
+    private int running;
+    private Throwable firstFailure;
+    private boolean timedOut;
+    private boolean closed;
+
+    private volatile boolean cancelled;
+
+    private TaskGroup(TaskGroup parent, long timeoutNanos, ThreadFactory threadFactory) {
+        this.parent = parent;
+        this.threadFactory = threadFactory;
+        long deadline = System.nanoTime() + timeoutNanos;
+        if (parent != null && parent.deadlineNanos - deadline < 0L) {
+            deadline = parent.deadlineNanos;
+        }
+        this.deadlineNanos = deadline;
+        this.deadlineTimer = DEADLINES.schedule(this::deadlinePassed,
+                Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Opens a group whose subtasks run on new platform threads.
+     */
+    public static TaskGroup open(long timeout, TimeUnit unit) {
+        return open(timeout, unit, Thread::new);
+    }
+
+    /**
+     * Opens a group whose subtasks run on threads from {@code threadFactory}.
+     * When called from inside a subtask, the new group becomes a child of that
+     * subtask's group and its deadline is capped by the parent's.
+     */
+    public static TaskGroup open(long timeout, TimeUnit unit, ThreadFactory threadFactory) {
+        TaskGroup parent = CURRENT.get();
+        TaskGroup group = new TaskGroup(parent, unit.toNanos(timeout), threadFactory);
+        if (parent != null) {
+            parent.adopt(group);
+        }
+        return group;
+    }
+
+    /**
+     * Returns true if the current thread is running a subtask whose group, or
+     * any enclosing group, has been cancelled. Long-running subtasks should
+     * poll this, or respond to interrupts, to stop promptly.
+     */
+    public static boolean cancellationRequested() {
+        TaskGroup group = CURRENT.get();
+        return group != null && group.cancelled;
+    }
+
+    /**
+     * Starts the task on a new thread. If the group has already been
+     * cancelled, or its deadline has passed, the task is not started and is
+     * returned as cancelled.
+     */
+    public <T> Subtask<T> fork(Callable<? extends T> task) {
+        Subtask<T> subtask = new Subtask<>(task);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task group is closed");
+            }
+            subtasks.add(subtask);
+            if (cancelled || deadlineNanos - System.nanoTime() <= 0L) {
+                subtask.cancelled();
+                return subtask;
+            }
+            subtask.thread = threadFactory.newThread(() -> runSubtask(subtask));
+            running++;
+            subtask.thread.start();
+        } finally {
+            lock.unlock();
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until every subtask has succeeded, or until the first failure,
+     * the deadline or a cancellation, which also cancel the remaining subtasks.
+     *
+     * @throws ExecutionException    if a subtask failed; the cause is its exception
+     * @throws TimeoutException      if the deadline passed first
+     * @throws CancellationException if the group or a parent group was cancelled
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        lock.lockInterruptibly();
+        try {
+            while (running > 0 && !cancelled) {
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0L) {
+                    timedOut = true;
+                    break;
+                }
+                changed.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (timedOut) {
+            cancel();
+        }
+        lock.lock();
+        try {
+            if (firstFailure != null) {
+                throw new ExecutionException(firstFailure);
+            }
+            if (timedOut) {
+                throw new TimeoutException("Task group deadline passed");
+            }
+            if (cancelled) {
+                throw new CancellationException("Task group was cancelled");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels every subtask that is still running, and every child group.
+     */
+    public void cancel() {
+        List<TaskGroup> childGroups;
+        lock.lock();
+        try {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            for (Subtask<?> subtask : subtasks) {
+                if (subtask.state() == Subtask.State.RUNNING && subtask.thread != null) {
+                    subtask.thread.interrupt();
+                }
+            }
+            childGroups = new ArrayList<>(children);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        deadlineTimer.cancel();
+        for (TaskGroup child : childGroups) {
+            child.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels any subtask that is still running and waits until all of them
+     * have stopped. Returns as soon as the last one stops.
+     */
+    @Override
+    public void close() {
+        boolean stillRunning;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stillRunning = running > 0;
+        } finally {
+            lock.unlock();
+        }
+        if (stillRunning) {
+            cancel();
+        }
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (running > 0) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        deadlineTimer.cancel();
+        if (parent != null) {
+            parent.release(this);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> void runSubtask(Subtask<T> subtask) {
+        CURRENT.set(this);
+        Throwable failure = null;
+        try {
+            subtask.succeed(subtask.task().call());
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            CURRENT.remove();
+        }
+        lock.lock();
+        try {
+            if (failure != null) {
+                if (cancelled) {
+                    // Whatever it threw, it was stopped by us
+                    subtask.cancelled();
+                } else {
+                    subtask.fail(failure);
+                    if (firstFailure == null) {
+                        firstFailure = failure;
+                    }
+                }
+            }
+            running--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (failure != null && !cancelled) {
+            cancel();
+        }
+    }
+
+    private void deadlinePassed() {
+        lock.lock();
+        try {
+            if (running == 0) {
+                // Everything already finished in time
+                return;
+            }
+            timedOut = true;
+        } finally {
+            lock.unlock();
+        }
+        cancel();
+    }
+
+    private void adopt(TaskGroup child) {
+        boolean cancelChild;
+        lock.lock();
+        try {
+            children.add(child);
+            cancelChild = cancelled;
+        } finally {
+            lock.unlock();
+        }
+        if (cancelChild) {
+            child.cancel();
+        }
+    }
+
+    private void release(TaskGroup child) {
+        lock.lock();
+        try {
+            children.remove(child);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
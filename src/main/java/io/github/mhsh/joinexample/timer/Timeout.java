@@ -0,0 +1,137 @@
+package io.github.mhsh.joinexample.timer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A task scheduled on a {@link TimingWheel}. It either expires, and its task
+ * runs on the wheel's ticker thread, or is cancelled first; never both.
+ */
+public final class Timeout {
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final TimingWheel wheel;
+    private final Runnable task;
+    private final long deadlineNanos;
+    private volatile int state;
+
+    // Owned by the ticker thread: the tick it is due at and its place in a bucket
+    final long deadlineTick;
+    Timeout prev;
+    Timeout next;
+    Bucket bucket;
+
+    Timeout(TimingWheel wheel, Runnable task, long deadlineNanos, long deadlineTick) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadlineNanos = deadlineNanos;
+        this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Cancels the timeout so that its task never runs. Takes constant time;
+     * the ticker thread unlinks it from its bucket on its next tick.
+     *
+     * @return true if this call cancelled it, false if it had already expired
+     *         or been cancelled
+     */
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+            return false;
+        }
+        wheel.cancelled(this);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at or after which the task runs.
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Marks the timeout expired, unless it was cancelled first.
+     *
+     * @return true if the task should now run
+     */
+    boolean tryExpire() {
+        return STATE.compareAndSet(this, PENDING, EXPIRED);
+    }
+
+    void runTask() {
+        task.run();
+    }
+
+    /**
+     * A doubly linked list of timeouts in one slot of the wheel, so that a
+     * cancelled timeout can be unlinked in constant time. Only the ticker
+     * thread touches it.
+     */
+    static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Empties the bucket and returns its former head; the caller walks the
+         * list through {@code next}, which it must read before re-adding.
+         */
+        Timeout clear() {
+            Timeout first = head;
+            for (Timeout t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+}
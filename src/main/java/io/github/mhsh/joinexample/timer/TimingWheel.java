@@ -0,0 +1,245 @@
+package io.github.mhsh.joinexample.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed hierarchical timing wheel: a timer for very many deadlines that
+ * mostly get cancelled, such as one per bounded task.
+ *
+ * <p>{@link #schedule} and {@link Timeout#cancel()} take constant time no
+ * matter how many timeouts are pending. They only append to a lock-free queue
+ * and never touch a shared heap. A {@code ScheduledThreadPoolExecutor} pays
+ * O(log n) for both, on a lock shared with its worker, and one blocked
+ * {@code join(timeout)} per deadline costs a whole thread.
+ *
+ * <p>One ticker thread owns the wheels. Level 0 has {@value #WHEEL_SIZE} slots
+ * of one tick each, level 1 has {@value #WHEEL_SIZE} slots of
+ * {@value #WHEEL_SIZE} ticks, and so on up to {@value #LEVELS} levels.
+ * Each tick the ticker:
+ * <ul>
+ *   <li>moves newly scheduled timeouts into the slot of their deadline, on the
+ *       lowest level whose span covers it;</li>
+ *   <li>unlinks cancelled ones from their slot;</li>
+ *   <li>when the level-0 wheel comes round, re-distributes the next level-1
+ *       slot into level 0 (and likewise up the levels);</li>
+ *   <li>runs the timeouts of the current level-0 slot.</li>
+ * </ul>
+ *
+ * <p>A timeout runs at or after its deadline, normally within one tick of it.
+ * Tasks run on the ticker thread and must be short, for example interrupting
+ * a thread or cancelling a task group. While nothing is scheduled the ticker
+ * parks instead of ticking.
+ */
+public final class TimingWheel implements AutoCloseable {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 6;
+    // Deltas beyond the top level are parked at its far end and re-inserted when they come round
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout.Bucket[][] wheels = new Timeout.Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Thread ticker;
+    private volatile boolean closed;
+    private volatile boolean idle;
+
+    // Owned by the ticker thread
+    private long currentTick;
+    private long timeoutsInWheels;
+
+    /**
+     * A wheel whose ticker is a daemon thread named {@code name}.
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, String name) {
+        this(tickDuration, unit, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param tickDuration  resolution of the timer; deadlines are rounded up to a tick
+     * @param threadFactory creates the ticker thread, which starts on the first schedule
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, ThreadFactory threadFactory) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0L) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration + " " + unit);
+        }
+        for (Timeout.Bucket[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Timeout.Bucket();
+            }
+        }
+        this.startNanos = System.nanoTime();
+        this.ticker = threadFactory.newThread(this::runTicker);
+    }
+
+    /**
+     * Runs {@code task} on the ticker thread once {@code delay} has passed,
+     * unless the returned timeout is cancelled first.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (closed) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long deadline = System.nanoTime() + Math.max(0L, unit.toNanos(delay));
+        // Round up, so that a timeout never runs before its deadline
+        long deadlineTick = Math.max(0L, (deadline - startNanos + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(this, task, deadline, deadlineTick);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        if (!started.get() && started.compareAndSet(false, true)) {
+            ticker.start();
+        } else if (idle) {
+            LockSupport.unpark(ticker);
+        }
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts that have neither expired nor been cancelled.
+     */
+    public long size() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the ticker. Timeouts that have not expired yet never run.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (started.get()) {
+            LockSupport.unpark(ticker);
+        }
+    }
+
+    void cancelled(Timeout timeout) {
+        pending.decrementAndGet();
+        cancellations.add(timeout);
+    }
+
+    private void runTicker() {
+        while (!closed) {
+            transferScheduled();
+            removeCancelled();
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            if (timeoutsInWheels == 0L) {
+                // Nothing to fire: skip the empty ticks and sleep until something is scheduled
+                currentTick = Math.max(currentTick, nowTick);
+                idle = true;
+                if (scheduled.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            while (currentTick <= nowTick) {
+                advance();
+            }
+            long sleep = startNanos + currentTick * tickNanos - System.nanoTime();
+            if (sleep > 0L) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                place(timeout);
+                timeoutsInWheels++;
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+                timeoutsInWheels--;
+            }
+        }
+    }
+
+    // Runs tick currentTick and moves on to the next
+    private void advance() {
+        int index = (int) (currentTick & MASK);
+        if (index == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int slot = (int) ((currentTick >>> (WHEEL_BITS * level)) & MASK);
+                cascade(wheels[level][slot]);
+                if (slot != 0) {
+                    break;
+                }
+            }
+        }
+        Timeout timeout = wheels[0][index].clear();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.isCancelled()) {
+                timeoutsInWheels--;
+            } else if (timeout.deadlineTick > currentTick) {
+                // Was parked at the far end of the top level; not due yet
+                place(timeout);
+            } else {
+                timeoutsInWheels--;
+                if (timeout.tryExpire()) {
+                    pending.decrementAndGet();
+                    runExpired(timeout);
+                }
+            }
+            timeout = next;
+        }
+        currentTick++;
+    }
+
+    private void cascade(Timeout.Bucket bucket) {
+        Timeout timeout = bucket.clear();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.isCancelled()) {
+                // Its cancellation finds it already unlinked
+                timeoutsInWheels--;
+            } else {
+                place(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long delta = Math.min(Math.max(0L, timeout.deadlineTick - currentTick), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & MASK)].add(timeout);
+    }
+
+    private void runExpired(Timeout timeout) {
+        try {
+            timeout.runTask();
+        } catch (Throwable t) {
+            // One failing task must not stop the ticker for all the others
+            t.printStackTrace();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package io.github.mhsh.multithread;
 
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class demonstrates the correct solution for atomic operations using AtomicInteger.
+ * The same workload can also be run against any {@link CounterStrategy} to compare throughput.
  */
 public class AtomicSolution {
     private final AtomicInteger counter = new AtomicInteger(0);
@@ -40,4 +44,41 @@ public class AtomicSolution {
         System.out.println("Expected counter value: " + (THREADS_COUNT * ITERATIONS));
         System.out.println("This demonstrates that AtomicInteger provides both visibility and atomicity");
     }
+    
+    /**
+     * Runs the same increment workload against the given counter strategy and
+     * reports how long it took.
+     */
+    public void start(CounterStrategy strategy) {
+        System.out.println("Starting atomic solution example with " + strategy + " counter...");
+        
+        Counter strategyCounter = strategy.create();
+        Thread[] threads = new Thread[THREADS_COUNT];
+        
+        long startTime = System.nanoTime();
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < ITERATIONS; j++) {
+                    strategyCounter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        
+        // Wait for all threads to complete
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        
+        long total = strategyCounter.sum();
+        System.out.println("Final " + strategy + " counter value: " + total);
+        System.out.println("Expected counter value: " + (THREADS_COUNT * ITERATIONS));
+        System.out.println("Elapsed: " + (elapsedNanos / 1_000) + " us, "
+                + (total * 1_000_000_000L / Math.max(1L, elapsedNanos)) + " increments/s");
+    }
 }
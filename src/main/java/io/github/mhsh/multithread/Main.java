@@ -1,5 +1,7 @@
 package io.github.mhsh.multithread;
 
+import io.github.mhsh.multithread.counter.CounterStrategy;
+
 /**
  * Main class to run all volatile examples and demonstrate their behavior.
  */
@@ -24,6 +26,14 @@ public class Main {
         VolatileDemo volatileDemo = new VolatileDemo();
         volatileDemo.start();
         System.out.println();
+
+        // Example 2b: Stopping the same loop with a StopToken in each read mode
+        System.out.println("===============================================");
+        System.out.println("EXAMPLE 2b: Stop Token - Opaque vs Acquire vs Volatile Polling");
+        System.out.println("===============================================");
+        nonVolatileExample.startWithStopToken();
+        volatileDemo.startWithStopToken();
+        System.out.println();
         
         // Example 3: Demonstrating limitations of volatile (non-atomic operations)
         System.out.println("===============================================");
@@ -39,6 +49,15 @@ public class Main {
         System.out.println("===============================================");
         AtomicSolution atomicSolution = new AtomicSolution();
         atomicSolution.start();
+        System.out.println();
+        
+        // Example 4b: Comparing counter strategies under the same workload
+        System.out.println("===============================================");
+        System.out.println("EXAMPLE 4b: Counter Strategies - CAS vs Striped vs Per-Thread vs Adaptive");
+        System.out.println("===============================================");
+        for (CounterStrategy strategy : CounterStrategy.values()) {
+            atomicSolution.start(strategy);
+        }
 
         // Example 5: Demonstrating ThreadLocal usage
         System.out.println();
@@ -1,8 +1,13 @@
 package io.github.mhsh.multithread;
 
+import io.github.mhsh.multithread.stop.ReadMode;
+import io.github.mhsh.multithread.stop.StopPoller;
+import io.github.mhsh.multithread.stop.StopToken;
+
 /**
  * This class demonstrates how the volatile keyword ensures visibility of changes across threads.
  * Changes to the volatile variable are immediately visible to all threads.
+ * {@link #startWithStopToken()} compares it with cheaper ways of polling a stop flag.
  */
 public class VolatileDemo {
     private volatile boolean running = true; // Volatile flag
@@ -53,4 +58,61 @@ public class VolatileDemo {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Runs the same hot loop once per read mode and check interval, stopped
+     * through a {@link StopToken}, and prints the loop throughput and how long
+     * the worker took to stop after the request.
+     */
+    public void startWithStopToken() {
+        System.out.println("Starting stop token example...");
+        ReadMode[] modes = {ReadMode.OPAQUE, ReadMode.ACQUIRE, ReadMode.VOLATILE};
+        int[] checkIntervals = {1, 1024};
+        for (ReadMode mode : modes) {
+            for (int checkInterval : checkIntervals) {
+                runStopTokenLoop(mode, checkInterval);
+            }
+        }
+    }
+
+    private void runStopTokenLoop(ReadMode mode, int checkInterval) {
+        StopToken token = new StopToken();
+        long[] iterations = new long[1];
+        long[] stoppedAt = new long[1];
+
+        Thread workerThread = new Thread(() -> {
+            StopPoller poller = token.poller(mode, checkInterval);
+            long counter = 0;
+            while (!poller.shouldStop()) {
+                counter++;
+            }
+            stoppedAt[0] = System.nanoTime();
+            iterations[0] = counter;
+        });
+
+        long startTime = System.nanoTime();
+        workerThread.start();
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        long requestedAt = System.nanoTime();
+        token.requestStop();
+
+        try {
+            workerThread.join(3000);
+            if (workerThread.isAlive()) {
+                System.out.println("Unexpected: " + mode + " worker thread is still running!");
+                return;
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return;
+        }
+        // join() makes the worker's writes visible here
+        double millis = (requestedAt - startTime) / 1_000_000.0;
+        System.out.printf("%-8s every %4d iterations: %,6.0f iterations/ms, stopped %,d us after the request%n",
+                mode, checkInterval, iterations[0] / millis, Math.max(0L, stoppedAt[0] - requestedAt) / 1_000);
+    }
 }
@@ -1,8 +1,13 @@
 package io.github.mhsh.multithread;
 
+import io.github.mhsh.multithread.stop.ReadMode;
+import io.github.mhsh.multithread.stop.StopPoller;
+import io.github.mhsh.multithread.stop.StopToken;
+
 /**
  * This class demonstrates the visibility issues that can occur without the volatile keyword.
  * When a thread keeps running endlessly because it doesn't see the updated value of the 'running' flag.
+ * {@link #startWithStopToken()} fixes it without a volatile read on every iteration.
  */
 public class VolatileExample {
     private boolean running = true; // Non-volatile flag
@@ -54,4 +59,52 @@ public class VolatileExample {
             e.printStackTrace();
         }
     }
+
+    /**
+     * The same loop stopped through a {@link StopToken} read in {@code OPAQUE}
+     * mode once every 1024 iterations: unlike the plain field it cannot be
+     * hoisted out of the loop, so the worker always stops, within 1024
+     * iterations of seeing the request.
+     */
+    public void startWithStopToken() {
+        System.out.println("Starting stop token example...");
+        StopToken token = new StopToken();
+
+        Thread workerThread = new Thread(() -> {
+            StopPoller poller = token.poller(ReadMode.OPAQUE, 1024);
+            long counter = 0;
+            System.out.println("Worker thread started");
+
+            while (!poller.shouldStop()) {
+                counter++;
+                if (counter % 5_000_000_000L == 0) {
+                    System.out.println("Still running... count: " + counter / 5_000_000_000L);
+                }
+            }
+
+            System.out.println("Worker thread terminated after: " + counter + " iterations");
+        });
+
+        workerThread.start();
+
+        try {
+            Thread.sleep(2000);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        token.requestStop();
+        System.out.println("Requested stop, worker checks the token every 1024 iterations");
+
+        try {
+            workerThread.join(5000);
+            if (workerThread.isAlive()) {
+                System.out.println("Unexpected: worker thread is still running!");
+            } else {
+                System.out.println("Worker thread terminated properly");
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
 }
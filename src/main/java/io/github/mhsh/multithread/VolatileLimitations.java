@@ -1,8 +1,12 @@
 package io.github.mhsh.multithread;
 
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+
 /**
  * This class demonstrates the limitations of volatile.
  * While volatile guarantees visibility, it does not provide atomicity for compound operations.
+ * {@link #start(CounterStrategy)} runs the same workload against an atomic counter strategy for comparison.
  */
 public class VolatileLimitations {
     private volatile int counter = 0; // Volatile counter
@@ -42,4 +46,56 @@ public class VolatileLimitations {
         System.out.println("This demonstrates that volatile ensures visibility but not atomicity");
         System.out.println("For atomic compound operations, use AtomicInteger or synchronized blocks");
     }
+    
+    /**
+     * Runs the same workload with the volatile counter and with the given
+     * counter strategy, and compares lost updates and elapsed time.
+     */
+    public void start(CounterStrategy strategy) {
+        System.out.println("Comparing volatile counter with " + strategy + " counter...");
+        
+        counter = 0;
+        Thread[] threads = new Thread[THREADS_COUNT];
+        
+        long startTime = System.nanoTime();
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < ITERATIONS; j++) {
+                    counter++;
+                }
+            });
+            threads[i].start();
+        }
+        joinAll(threads);
+        long volatileNanos = System.nanoTime() - startTime;
+        
+        Counter strategyCounter = strategy.create();
+        startTime = System.nanoTime();
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < ITERATIONS; j++) {
+                    strategyCounter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        joinAll(threads);
+        long strategyNanos = System.nanoTime() - startTime;
+        
+        int expected = THREADS_COUNT * ITERATIONS;
+        System.out.println("Volatile counter: " + counter + " (lost updates: " + (expected - counter)
+                + "), elapsed: " + (volatileNanos / 1_000) + " us");
+        System.out.println(strategy + " counter: " + strategyCounter.sum() + " (lost updates: "
+                + (expected - strategyCounter.sum()) + "), elapsed: " + (strategyNanos / 1_000) + " us");
+    }
+    
+    private void joinAll(Thread[] threads) {
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }
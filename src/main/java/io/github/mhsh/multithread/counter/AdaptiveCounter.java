@@ -0,0 +1,112 @@
+package io.github.mhsh.multithread.counter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A counter that behaves like {@link CasCounter} while contention is low and
+ * inflates to a {@link StripedCounter} once failed CAS attempts pass a
+ * threshold. Uncontended use therefore pays for one padded field only, and
+ * contended use stops serializing on it.
+ *
+ * <p>Each successful CAS takes one off the failure count again, so the count
+ * measures how far failures outrun successes rather than every failure ever
+ * seen. Rare, sporadic contention decays away; only sustained contention, where
+ * most attempts fail, reaches the threshold.
+ */
+public class AdaptiveCounter implements Counter {
+    static final int DEFAULT_INFLATE_THRESHOLD = 64;
+
+    private static final VarHandle BASE;
+    private static final VarHandle FAILURES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(AdaptiveCounter.class, "base", long.class);
+            FAILURES = lookup.findVarHandle(AdaptiveCounter.class, "failures", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int inflateThreshold;
+
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private volatile long base;
+    private volatile int failures;
+    private volatile StripedCounter stripes;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+
+    public AdaptiveCounter() {
+        this(DEFAULT_INFLATE_THRESHOLD);
+    }
+
+    /**
+     * @param inflateThreshold how far failed CAS attempts on the shared value must
+     *                         outnumber successful ones before the counter
+     *                         switches to stripes
+     */
+    public AdaptiveCounter(int inflateThreshold) {
+        if (inflateThreshold < 1) {
+            throw new IllegalArgumentException("inflateThreshold must be positive: " + inflateThreshold);
+        }
+        this.inflateThreshold = inflateThreshold;
+    }
+
+    @Override
+    public void add(long x) {
+        StripedCounter s = stripes;
+        if (s != null) {
+            s.add(x);
+            return;
+        }
+        long v = base;
+        if (BASE.compareAndSet(this, v, v + x)) {
+            int f = failures;
+            if (f > 0) {
+                // Decay; losing this race only delays the decay, so one attempt is enough
+                FAILURES.compareAndSet(this, f, f - 1);
+            }
+            return;
+        }
+        // Lost a race on the shared value: record it and inflate if it keeps happening
+        if ((int) FAILURES.getAndAdd(this, 1) + 1 >= inflateThreshold) {
+            inflate();
+        }
+        s = stripes;
+        if (s != null) {
+            s.add(x);
+        } else {
+            BASE.getAndAdd(this, x);
+        }
+    }
+
+    @Override
+    public long sum() {
+        StripedCounter s = stripes;
+        return base + (s == null ? 0L : s.sum());
+    }
+
+    @Override
+    public long sumThenReset() {
+        StripedCounter s = stripes;
+        long sum = (long) BASE.getAndSet(this, 0L);
+        return sum + (s == null ? 0L : s.sumThenReset());
+    }
+
+    /**
+     * Returns true once the counter has switched to striped cells.
+     */
+    public boolean isInflated() {
+        return stripes != null;
+    }
+
+    private synchronized void inflate() {
+        if (stripes == null) {
+            stripes = new StripedCounter(Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.mhsh.multithread.counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The baseline counter: every thread updates the same {@link AtomicLong}, so
+ * all increments compete for a single cache line.
+ */
+public class CasCounter implements Counter {
+    private final AtomicLong value = new AtomicLong();
+
+    @Override
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    @Override
+    public void add(long x) {
+        value.addAndGet(x);
+    }
+
+    @Override
+    public long sum() {
+        return value.get();
+    }
+
+    @Override
+    public long sumThenReset() {
+        return value.getAndSet(0L);
+    }
+}
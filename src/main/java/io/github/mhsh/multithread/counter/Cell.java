@@ -0,0 +1,46 @@
+package io.github.mhsh.multithread.counter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A single counter slot padded on both sides so that two cells, or a cell and
+ * an unrelated hot field, never share a cache line.
+ */
+class Cell {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Cell.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    volatile long value;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+
+    boolean cas(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    long getAndAdd(long x) {
+        return (long) VALUE.getAndAdd(this, x);
+    }
+
+    long getAndReset() {
+        return (long) VALUE.getAndSet(this, 0L);
+    }
+
+    /**
+     * Store used by a cell's single writer; release ordering is enough for a
+     * reader that sums the cells later.
+     */
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
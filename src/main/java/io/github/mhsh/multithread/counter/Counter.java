@@ -0,0 +1,33 @@
+package io.github.mhsh.multithread.counter;
+
+/**
+ * A thread-safe long counter. Implementations differ only in how they spread
+ * contention between threads, so they can be swapped to compare throughput.
+ */
+public interface Counter {
+
+    /**
+     * Adds one to the counter.
+     */
+    default void increment() {
+        add(1L);
+    }
+
+    /**
+     * Adds the given value to the counter.
+     */
+    void add(long x);
+
+    /**
+     * Returns the current total. Updates that happen concurrently with this
+     * call may or may not be included.
+     */
+    long sum();
+
+    /**
+     * Returns the current total and resets the counter to zero. Every update is
+     * counted exactly once across successive calls, but concurrent updates may
+     * land on either side of the reset.
+     */
+    long sumThenReset();
+}
@@ -0,0 +1,35 @@
+package io.github.mhsh.multithread.counter;
+
+/**
+ * The available counter implementations, so that an example can be run
+ * against each of them and their throughput compared.
+ */
+public enum CounterStrategy {
+
+    /** One shared value updated with compare-and-set. */
+    CAS,
+
+    /** {@code LongAdder}-style cells chosen by a per-thread hash. */
+    STRIPED,
+
+    /** One cell per thread, written only by its owner. */
+    PER_THREAD,
+
+    /** Starts as a single CAS value and inflates to stripes under contention. */
+    ADAPTIVE;
+
+    public Counter create() {
+        switch (this) {
+            case CAS:
+                return new CasCounter();
+            case STRIPED:
+                return new StripedCounter();
+            case PER_THREAD:
+                return new PerThreadCounter();
+            case ADAPTIVE:
+                return new AdaptiveCounter();
+            default:
+                throw new IllegalStateException("Unknown strategy: " + this);
+        }
+    }
+}
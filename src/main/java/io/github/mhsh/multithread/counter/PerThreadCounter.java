@@ -0,0 +1,55 @@
+package io.github.mhsh.multithread.counter;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A counter where every thread owns a private padded cell. Increments never
+ * contend: the owner reads its cell and publishes the new value with a release
+ * store, with no CAS at all. Readers sum every cell ever registered.
+ *
+ * <p>Because writers never use atomic read-modify-write, a reset cannot clear
+ * a cell. Instead the counter remembers, per cell, the value already handed
+ * out by {@link #sumThenReset()} and subtracts it from later sums.
+ *
+ * <p>Cells of terminated threads are kept so their counts are not lost; this
+ * counter is meant for a bounded set of long-lived worker threads.
+ */
+public class PerThreadCounter implements Counter {
+    private final CopyOnWriteArrayList<OwnedCell> allCells = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<OwnedCell> localCell = ThreadLocal.withInitial(() -> {
+        OwnedCell cell = new OwnedCell();
+        allCells.add(cell);
+        return cell;
+    });
+
+    @Override
+    public void add(long x) {
+        OwnedCell cell = localCell.get();
+        cell.setRelease(cell.value + x);
+    }
+
+    @Override
+    public synchronized long sum() {
+        long sum = 0L;
+        for (OwnedCell cell : allCells) {
+            sum += cell.value - cell.resetMark;
+        }
+        return sum;
+    }
+
+    @Override
+    public synchronized long sumThenReset() {
+        long sum = 0L;
+        for (OwnedCell cell : allCells) {
+            long v = cell.value;
+            sum += v - cell.resetMark;
+            cell.resetMark = v;
+        }
+        return sum;
+    }
+
+    private static final class OwnedCell extends Cell {
+        // Only read and written by readers while holding the counter's lock
+        long resetMark;
+    }
+}
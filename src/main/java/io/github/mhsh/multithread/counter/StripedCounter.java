@@ -0,0 +1,99 @@
+package io.github.mhsh.multithread.counter;
+
+/**
+ * A {@code LongAdder}-style counter. Each thread hashes to one of a set of
+ * padded cells; when a CAS on its cell fails the thread moves to another cell,
+ * and the table doubles (up to the number of processors) so that collisions
+ * become rare.
+ */
+public class StripedCounter implements Counter {
+    private static final int MAX_CELLS = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    // Per-thread hash used to pick a cell; rehashed on collision
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+        int seed = (int) (Thread.currentThread().getId() * 0x9E3779B9L);
+        return new int[] {seed == 0 ? 1 : seed};
+    });
+
+    private volatile Cell[] cells;
+
+    public StripedCounter() {
+        this(2);
+    }
+
+    StripedCounter(int initialCells) {
+        int size = Math.min(MAX_CELLS, Integer.highestOneBit(Math.max(1, initialCells)));
+        Cell[] table = new Cell[size];
+        for (int i = 0; i < size; i++) {
+            table[i] = new Cell();
+        }
+        this.cells = table;
+    }
+
+    @Override
+    public void add(long x) {
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        Cell[] table = cells;
+        Cell cell = table[h & (table.length - 1)];
+        long v = cell.value;
+        if (cell.cas(v, v + x)) {
+            return;
+        }
+        // Collision: move this thread to another cell and grow if we still can
+        h = rehash(h);
+        probe[0] = h;
+        if (table.length < MAX_CELLS) {
+            grow(table);
+        }
+        table = cells;
+        table[h & (table.length - 1)].getAndAdd(x);
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0L;
+        for (Cell cell : cells) {
+            sum += cell.value;
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumThenReset() {
+        long sum = 0L;
+        for (Cell cell : cells) {
+            sum += cell.getAndReset();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the current number of cells.
+     */
+    public int cellCount() {
+        return cells.length;
+    }
+
+    private synchronized void grow(Cell[] seen) {
+        // Another thread may already have grown the table
+        if (cells != seen) {
+            return;
+        }
+        Cell[] bigger = new Cell[seen.length << 1];
+        System.arraycopy(seen, 0, bigger, 0, seen.length);
+        for (int i = seen.length; i < bigger.length; i++) {
+            bigger[i] = new Cell();
+        }
+        cells = bigger;
+    }
+
+    private static int rehash(int h) {
+        // Marsaglia xorshift
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        return h;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.mhsh.multithread.stop;
+
+/**
+ * How a {@link StopToken} reads its flag, from the cheapest and weakest to the
+ * most expensive and strongest.
+ */
+public enum ReadMode {
+
+    /**
+     * An ordinary field read. The JIT may hoist it out of a loop, so a loop
+     * polling in this mode may never see the stop; this is the bug in
+     * {@code VolatileExample}.
+     */
+    PLAIN,
+
+    /**
+     * Guaranteed to eventually see the write and never hoisted, but imposes no
+     * ordering on other memory accesses. The cheapest mode that always stops.
+     */
+    OPAQUE,
+
+    /**
+     * Like {@code OPAQUE}, and everything written before {@code requestStop()}
+     * is visible once the stop has been seen.
+     */
+    ACQUIRE,
+
+    /** A {@code volatile} read, as in {@code VolatileDemo}. */
+    VOLATILE
+}
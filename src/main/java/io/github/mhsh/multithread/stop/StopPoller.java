@@ -0,0 +1,64 @@
+package io.github.mhsh.multithread.stop;
+
+/**
+ * Amortized stop polling for one worker loop: {@link #shouldStop()} is called
+ * on every iteration but only reads the {@link StopToken} once every
+ * {@code checkInterval} calls, so the cost of the read, and of any barrier it
+ * implies, is spread over that many iterations.
+ *
+ * <p>Once a stop is visible to the polling thread, the loop runs at most
+ * {@code checkInterval - 1} more iterations before {@code shouldStop()}
+ * returns true. The read mode must be {@code OPAQUE} or stronger, because only
+ * those guarantee that the stop becomes visible at all; a {@code PLAIN} read
+ * may be hoisted out of the loop. Pick the interval so that
+ * {@code checkInterval} times the cost of one iteration is an acceptable stop
+ * latency.
+ *
+ * <p>A poller keeps a countdown in an ordinary field, so it must only be used
+ * by one thread.
+ */
+public final class StopPoller {
+    private final StopToken token;
+    private final ReadMode mode;
+    private final int checkInterval;
+    private int countdown;
+    private boolean stopped;
+
+    StopPoller(StopToken token, ReadMode mode, int checkInterval) {
+        if (mode == ReadMode.PLAIN) {
+            throw new IllegalArgumentException("A PLAIN read may never observe the stop; use OPAQUE or stronger");
+        }
+        if (checkInterval < 1) {
+            throw new IllegalArgumentException("Check interval must be positive: " + checkInterval);
+        }
+        this.token = token;
+        this.mode = mode;
+        this.checkInterval = checkInterval;
+        this.countdown = 1;
+    }
+
+    /**
+     * Returns true once the token has been stopped. Reads the token on the
+     * first call and then on every {@code checkInterval}-th call; once it has
+     * returned true it keeps returning true.
+     */
+    public boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+        if (--countdown > 0) {
+            return false;
+        }
+        countdown = checkInterval;
+        stopped = token.isStopRequested(mode);
+        return stopped;
+    }
+
+    public ReadMode getMode() {
+        return mode;
+    }
+
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.mhsh.multithread.stop;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A one-way stop flag for worker loops, as the reusable version of the
+ * {@code running} field in {@code VolatileExample} and {@code VolatileDemo}.
+ *
+ * <p>The stop is always published with a volatile write. Readers choose how
+ * strongly to read it with a {@link ReadMode}: a hot loop that only needs to
+ * stop eventually can read it in {@code OPAQUE} mode instead of paying for a
+ * {@code volatile} read on every iteration, and a {@link StopPoller} reads it
+ * only once every N iterations.
+ */
+public final class StopToken {
+    private static final VarHandle STOP_REQUESTED;
+
+    static {
+        try {
+            STOP_REQUESTED = MethodHandles.lookup().findVarHandle(StopToken.class, "stopRequested", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Not declared volatile: every access goes through STOP_REQUESTED in an explicit mode
+    private boolean stopRequested;
+
+    /**
+     * Asks every loop polling this token to stop. Everything the calling
+     * thread wrote before this call is visible to a reader that sees the stop
+     * in {@code ACQUIRE} or {@code VOLATILE} mode.
+     *
+     * @return true if this call requested the stop, false if it already was
+     */
+    public boolean requestStop() {
+        return STOP_REQUESTED.compareAndSet(this, false, true);
+    }
+
+    /**
+     * Returns true once a stop has been requested, with a {@code volatile} read.
+     */
+    public boolean isStopRequested() {
+        return (boolean) STOP_REQUESTED.getVolatile(this);
+    }
+
+    /**
+     * Returns true once a stop has been requested, reading the flag in the
+     * given mode. {@code PLAIN} carries no guarantee that the stop is ever
+     * seen by a thread polling in a loop.
+     */
+    public boolean isStopRequested(ReadMode mode) {
+        switch (mode) {
+            case PLAIN:
+                return (boolean) STOP_REQUESTED.get(this);
+            case OPAQUE:
+                return (boolean) STOP_REQUESTED.getOpaque(this);
+            case ACQUIRE:
+                return (boolean) STOP_REQUESTED.getAcquire(this);
+            case VOLATILE:
+                return (boolean) STOP_REQUESTED.getVolatile(this);
+            default:
+                throw new IllegalStateException("Unknown read mode: " + mode);
+        }
+    }
+
+    /**
+     * Returns a poller for one worker thread that reads this token in the
+     * given mode once every {@code checkInterval} calls.
+     */
+    public StopPoller poller(ReadMode mode, int checkInterval) {
+        return new StopPoller(this, mode, checkInterval);
+    }
+}
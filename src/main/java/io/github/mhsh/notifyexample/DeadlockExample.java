@@ -1,7 +1,22 @@
 package io.github.mhsh.notifyexample;
 
+import io.github.mhsh.asynclog.AsyncLog;
+import io.github.mhsh.jfr.MonitorAcquireEvent;
+import io.github.mhsh.jfr.MonitorHoldEvent;
+import io.github.mhsh.jfr.MonitorWaitEvent;
+import io.github.mhsh.jfr.WorkItemEvent;
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import io.github.mhsh.notifyexample.buffer.ThresholdBuffer;
+import io.github.mhsh.padding.PaddedLongArray;
+import io.github.mhsh.watchdog.Watchdog;
+import io.github.mhsh.watchdog.WatchdogReport;
+
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class demonstrates how incorrect use of notify() can lead to deadlocks
@@ -13,6 +28,21 @@ public class DeadlockExample {
     private final int BUFFER_SIZE = 2; // Small buffer size to make deadlock more likely
     private final int MAX_ITEMS = 10; 
     private boolean producerDone = false;
+    // Monitor name carried by the JFR events
+    private static final String MONITOR = "DeadlockExample.buffer";
+
+    private final ThreadFactory threadFactory;
+    
+    public DeadlockExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public DeadlockExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
 
     public void runDeadlockScenario() {
         System.out.println("=== Running deadlock scenario with incorrect notify() usage ===");
@@ -20,18 +50,27 @@ public class DeadlockExample {
 
         final int CONSUMER_COUNT = 3;
         Thread[] consumers = new Thread[CONSUMER_COUNT];
+        // Items handled per thread, read by the watchdog: slot 0 is the producer.
+        // Each slot is written by its own thread, so each gets a cache line of its own
+        PaddedLongArray itemCounts = new PaddedLongArray(CONSUMER_COUNT + 1);
         
         // Producer thread - adds items to the buffer
-        Thread producer = new Thread(() -> {
-            System.out.println("Producer: Starting");
+        Thread producer = threadFactory.newThread(() -> {
+            AsyncLog.log("Producer: Starting");
             
             for (int i = 0; i < MAX_ITEMS; i++) {
+                MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                 synchronized (buffer) {
+                    acquire.commit(i, buffer.size());
+                    MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                    
                     // Wait if buffer is full
                     while (buffer.size() >= BUFFER_SIZE) {
                         try {
-                            System.out.println("Producer: Buffer full, waiting...");
+                            AsyncLog.log("Producer: Buffer full, waiting...");
+                            MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                             buffer.wait();
+                            wait.commit(i, buffer.size());
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
@@ -39,11 +78,13 @@ public class DeadlockExample {
                     
                     // Add item to buffer
                     buffer.add(i);
-                    System.out.println("Producer: Added item " + i + ", Buffer size: " + buffer.size());
+                    itemCounts.incrementAndGet(0);
+                    AsyncLog.log("Producer: Added item {}, Buffer size: {}", i, buffer.size());
                     
                     // Wake up only ONE waiting consumer
                     // This can lead to deadlock if the wrong consumer is awakened
                     buffer.notify(); 
+                    hold.commit(i, buffer.size());
                 }
                 
                 try {
@@ -58,7 +99,7 @@ public class DeadlockExample {
                 producerDone = true;
                 // Using notify() instead of notifyAll() here might leave some consumers waiting forever
                 buffer.notify(); 
-                System.out.println("Producer: Finished producing all items");
+                AsyncLog.log("Producer: Finished producing all items");
             }
         });
 
@@ -67,20 +108,27 @@ public class DeadlockExample {
             final int consumerId = c;
             final int waitThreshold = consumerId; // Different thresholds to demonstrate the issue
             
-            consumers[c] = new Thread(() -> {
-                System.out.println("Consumer-" + consumerId + ": Starting (waits for at least " + waitThreshold + " items)");
+            consumers[c] = threadFactory.newThread(() -> {
+                AsyncLog.log("Consumer-{}: Starting (waits for at least {} items)",
+                             consumerId, waitThreshold);
                 int itemsConsumed = 0;
                 
                 while (!producerDone || !buffer.isEmpty()) {
                     Integer item = null;
                     
+                    MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                     synchronized (buffer) {
+                        acquire.commit(-1, buffer.size());
+                        MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                        
                         // This consumer only processes items if there are enough in the buffer
                         // or if the producer is done
                         while ((buffer.size() <= waitThreshold) && !producerDone) {
                             try {
-                                System.out.println("Consumer-" + consumerId + ": Not enough items, waiting...");
+                                AsyncLog.log("Consumer-{}: Not enough items, waiting...", consumerId);
+                                MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                                 buffer.wait();
+                                wait.commit(-1, buffer.size());
                             } catch (InterruptedException e) {
                                 e.printStackTrace();
                             }
@@ -93,23 +141,27 @@ public class DeadlockExample {
                             // Notify a single waiting thread
                             buffer.notify(); // This might wake up another consumer instead of the producer!
                         }
+                        hold.commit(item == null ? -1 : item, buffer.size());
                     }
                     
                     // Process the item outside of the synchronized block
                     if (item != null) {
+                        WorkItemEvent work = WorkItemEvent.begin("DeadlockExample.consumer");
                         itemsConsumed++;
-                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
-                                          ", Items consumed: " + itemsConsumed);
+                        itemCounts.incrementAndGet(consumerId + 1);
+                        AsyncLog.log("Consumer-{}: Consumed item {}, Items consumed: {}",
+                                     consumerId, item, itemsConsumed);
                         
                         try {
                             Thread.sleep(200);
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
+                        work.commit(item);
                     }
                 }
                 
-                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+                AsyncLog.log("Consumer-{}: Finished. Items consumed: {}", consumerId, itemsConsumed);
             });
             
             consumers[c].start();
@@ -118,36 +170,175 @@ public class DeadlockExample {
         // Start producer thread
         producer.start();
 
-        // Wait for all threads to finish (with timeout to avoid hanging the demo)
-        try {
-            producer.join(10000); // Wait up to 10 seconds
-            for (Thread consumer : consumers) {
-                consumer.join(2000); // Wait up to 2 seconds
+        // Instead of joining with fixed timeouts and checking isAlive(), let a watchdog
+        // sample the threads: it reports a lock cycle at once, and a stall when neither
+        // the item counters nor the buffer size change for 4 samples (2 seconds)
+        Watchdog watchdog = new Watchdog(500, TimeUnit.MILLISECONDS, 4,
+                report -> {
+                    AsyncLog.flush();
+                    System.out.println("\nWATCHDOG: " + report);
+                });
+        watchdog.watch(producer, () -> itemCounts.get(0));
+        for (int i = 0; i < CONSUMER_COUNT; i++) {
+            final int slot = i + 1;
+            watchdog.watch(consumers[i], () -> itemCounts.get(slot));
+        }
+        // Unlocked read: the watchdog must never block on the monitor it is watching
+        watchdog.watchState(buffer::size);
+        
+        try (Watchdog running = watchdog.start()) {
+            WatchdogReport report = running.awaitOutcome();
+            AsyncLog.flush();
+            if (report != null) {
+                System.out.println("\n" + report.getKind() + " DETECTED! This demonstrates the danger of using notify() with multiple threads.");
+                System.out.println("The solution is to use notifyAll() when multiple threads may be waiting for different conditions.");
+            } else {
+                System.out.println("All threads completed successfully (no deadlock this time).");
             }
-            
-            // Check if any threads are still running (potential deadlock)
-            boolean deadlocked = false;
-            if (producer.isAlive()) {
-                System.out.println("WARNING: Producer is still running after timeout (potential deadlock)");
-                deadlocked = true;
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The same producer and threshold consumers on a lock-free {@link MpmcRingBuffer}.
+     * Nobody waits in a shared wait set, so there is no wrong thread to wake:
+     * a consumer that wants more items than are buffered simply polls again
+     * after a short timed wait, and the run cannot hang.
+     */
+    public void runWithRingBuffer() {
+        System.out.println("=== Running the deadlock scenario on a lock-free ring buffer ===");
+        
+        final int CONSUMER_COUNT = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        BoundedBuffer<Integer> ringBuffer = new MpmcRingBuffer<>(BUFFER_SIZE);
+        AtomicBoolean done = new AtomicBoolean(false);
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    ringBuffer.put(i);
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + ringBuffer.size());
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
             }
+            done.set(true);
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            final int waitThreshold = consumerId;
             
-            for (int i = 0; i < CONSUMER_COUNT; i++) {
-                if (consumers[i].isAlive()) {
-                    System.out.println("WARNING: Consumer-" + i + " is still running after timeout (potential deadlock)");
-                    deadlocked = true;
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting (waits for at least " + waitThreshold + " items)");
+                int itemsConsumed = 0;
+                try {
+                    while (!done.get() || !ringBuffer.isEmpty()) {
+                        // Only take an item if enough are buffered, or if the producer is done
+                        Integer item = null;
+                        if (ringBuffer.size() > waitThreshold || done.get()) {
+                            item = ringBuffer.poll(50, TimeUnit.MILLISECONDS);
+                        } else {
+                            Thread.sleep(10);
+                        }
+                        
+                        if (item != null) {
+                            itemsConsumed++;
+                            System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
+                                              ", Items consumed: " + itemsConsumed);
+                            Thread.sleep(200);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
                 }
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
             }
-            
-            if (deadlocked) {
-                System.out.println("\nDEADLOCK DETECTED! This demonstrates the danger of using notify() with multiple threads.");
-                System.out.println("The solution is to use notifyAll() when multiple threads may be waiting for different conditions.");
-            } else {
-                System.out.println("All threads completed successfully (no deadlock this time).");
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("All threads completed: the ring buffer has no wait set to deadlock on.");
+    }
+    
+    /**
+     * The same producer and threshold consumers on a {@link ThresholdBuffer}.
+     * Each consumer registers its threshold and is woken only when that many
+     * items are buffered (or production has ended), so the wrong thread is
+     * never woken and nothing depends on notify() picking well.
+     */
+    public void runWithWaiterRegistry() {
+        System.out.println("=== Running the deadlock scenario with threshold-targeted wake-ups ===");
+        
+        final int CONSUMER_COUNT = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        ThresholdBuffer<Integer> thresholdBuffer = new ThresholdBuffer<>(BUFFER_SIZE);
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    thresholdBuffer.put(i); // Wakes only consumers whose threshold is now met
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + thresholdBuffer.size());
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
             }
+            thresholdBuffer.close(); // Let every consumer drain what is left and finish
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            final int waitThreshold = consumerId;
             
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting (waits for at least " + waitThreshold + " items)");
+                int itemsConsumed = 0;
+                try {
+                    Integer item;
+                    // Same condition as the monitor version: more than waitThreshold items buffered
+                    while ((item = thresholdBuffer.takeWhenAtLeast(waitThreshold + 1)) != null) {
+                        itemsConsumed++;
+                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
+                                          ", Items consumed: " + itemsConsumed);
+                        Thread.sleep(200);
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        
+        System.out.println("All threads completed. Wake-ups: " + thresholdBuffer.getWakeups() + 
+                          ", useless wake-ups: " + thresholdBuffer.getUselessWakeups());
     }
 }
@@ -1,7 +1,32 @@
 package io.github.mhsh.notifyexample;
 
+import io.github.mhsh.asynclog.AsyncLog;
+import io.github.mhsh.jfr.MonitorAcquireEvent;
+import io.github.mhsh.jfr.MonitorHoldEvent;
+import io.github.mhsh.jfr.MonitorWaitEvent;
+import io.github.mhsh.jfr.WorkItemEvent;
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.buffer.ConditionBuffer;
+import io.github.mhsh.notifyexample.buffer.IntRingBuffer;
+import io.github.mhsh.notifyexample.buffer.MonitorBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import io.github.mhsh.notifyexample.buffer.WorkStealingBuffer;
+import io.github.mhsh.notifyexample.loadgen.LoadPoint;
+import io.github.mhsh.notifyexample.loadgen.OpenLoadGenerator;
+import io.github.mhsh.notifyexample.metrics.BufferMetrics;
+import io.github.mhsh.notifyexample.pipeline.Pipeline;
+import io.github.mhsh.notifyexample.waitstrategy.WaitStrategyType;
+import io.github.mhsh.padding.PaddedLong;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class demonstrates the difference between notify() and notifyAll()
@@ -12,8 +37,27 @@ public class NotifyAllExample {
     private final Queue<Integer> buffer = new LinkedList<>();
     private final int BUFFER_SIZE = 5;
     private final int MAX_ITEMS = 30;
+    private final int OPEN_LOAD_CONSUMERS = 3;
     private boolean producerDone = false;
-    private int totalConsumed = 0;
+    // Guarded by buffer. Written by every consumer on every item, so it is kept
+    // off the cache line of buffer and producerDone, which consumers read unlocked
+    private final PaddedLong totalConsumed = new PaddedLong();
+    private static final Integer END_OF_STREAM = -1;
+    // Monitor name carried by the JFR events
+    private static final String MONITOR = "NotifyAllExample.buffer";
+
+    private final ThreadFactory threadFactory;
+    
+    public NotifyAllExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public NotifyAllExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
 
     public void runWithMultipleConsumers() {
         System.out.println("=== Running example with notifyAll() and multiple consumers ===");
@@ -22,16 +66,22 @@ public class NotifyAllExample {
         Thread[] consumers = new Thread[CONSUMER_COUNT];
         
         // Producer thread - adds items to the buffer and uses notifyAll()
-        Thread producer = new Thread(() -> {
-            System.out.println("Producer: Starting");
+        Thread producer = threadFactory.newThread(() -> {
+            AsyncLog.log("Producer: Starting");
             
             for (int i = 0; i < MAX_ITEMS; i++) {
+                MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                 synchronized (buffer) {
+                    acquire.commit(i, buffer.size());
+                    MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                    
                     // Wait if buffer is full
                     while (buffer.size() >= BUFFER_SIZE) {
                         try {
-                            System.out.println("Producer: Buffer full, waiting...");
+                            AsyncLog.log("Producer: Buffer full, waiting...");
+                            MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                             buffer.wait();
+                            wait.commit(i, buffer.size());
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
@@ -39,10 +89,11 @@ public class NotifyAllExample {
                     
                     // Add item to buffer
                     buffer.add(i);
-                    System.out.println("Producer: Added item " + i + ", Buffer size: " + buffer.size());
+                    AsyncLog.log("Producer: Added item {}, Buffer size: {}", i, buffer.size());
                     
                     // Wake up ALL waiting consumers
                     buffer.notifyAll();
+                    hold.commit(i, buffer.size());
                 }
                 
                 // Simulate varying production speeds
@@ -57,26 +108,32 @@ public class NotifyAllExample {
             synchronized (buffer) {
                 producerDone = true;
                 buffer.notifyAll(); // Wake up all waiting consumers
-                System.out.println("Producer: Finished producing all items");
+                AsyncLog.log("Producer: Finished producing all items");
             }
         });
 
         // Create multiple consumer threads
         for (int c = 0; c < CONSUMER_COUNT; c++) {
             final int consumerId = c;
-            consumers[c] = new Thread(() -> {
-                System.out.println("Consumer-" + consumerId + ": Starting");
+            consumers[c] = threadFactory.newThread(() -> {
+                AsyncLog.log("Consumer-{}: Starting", consumerId);
                 int itemsConsumed = 0;
                 
                 while (!producerDone || !buffer.isEmpty()) {
                     Integer item = null;
                     
+                    MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                     synchronized (buffer) {
+                        acquire.commit(-1, buffer.size());
+                        MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                        
                         // Wait if buffer is empty and producer isn't done
                         while (buffer.isEmpty() && !producerDone) {
                             try {
-                                System.out.println("Consumer-" + consumerId + ": Buffer empty, waiting...");
+                                AsyncLog.log("Consumer-{}: Buffer empty, waiting...", consumerId);
+                                MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                                 buffer.wait();
+                                wait.commit(-1, buffer.size());
                             } catch (InterruptedException e) {
                                 e.printStackTrace();
                             }
@@ -85,18 +142,20 @@ public class NotifyAllExample {
                         // If there are items in the buffer, consume one
                         if (!buffer.isEmpty()) {
                             item = buffer.poll();
-                            totalConsumed++;
+                            totalConsumed.setPlain(totalConsumed.getPlain() + 1);
                             
                             // Notify producer that space is available
                             buffer.notify(); // We could use notifyAll() here too
                         }
+                        hold.commit(item == null ? -1 : item, buffer.size());
                     }
                     
                     // Process the item outside of the synchronized block
                     if (item != null) {
+                        WorkItemEvent work = WorkItemEvent.begin("NotifyAllExample.consumer");
                         itemsConsumed++;
-                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
-                                          ", Items consumed by this consumer: " + itemsConsumed);
+                        AsyncLog.log("Consumer-{}: Consumed item {}, Items consumed by this consumer: {}",
+                                     consumerId, item, itemsConsumed);
                         
                         // Simulate varying consumption speeds
                         try {
@@ -104,10 +163,11 @@ public class NotifyAllExample {
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
+                        work.commit(item);
                     }
                 }
                 
-                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+                AsyncLog.log("Consumer-{}: Finished. Items consumed: {}", consumerId, itemsConsumed);
             });
             
             consumers[c].start();
@@ -126,9 +186,451 @@ public class NotifyAllExample {
             e.printStackTrace();
         }
 
+        // Let the log writer catch up so the summary comes after the workers' lines
+        AsyncLog.flush();
         System.out.println("Main: All threads have finished");
         System.out.println("Main: Total items produced: " + MAX_ITEMS);
         System.out.println("Main: Total items consumed: " + totalConsumed);
         System.out.println("Main: notifyAll() ensures all waiting threads get a chance to check their conditions");
     }
+
+    /**
+     * Same scenario with several consumers, but on a lock-free {@link MpmcRingBuffer}.
+     * Consumers claim items with a CAS instead of queueing on one monitor.
+     */
+    public void runWithRingBuffer() {
+        System.out.println("=== Running example with a lock-free ring buffer and multiple consumers ===");
+        runWithBuffer(new MpmcRingBuffer<>(BUFFER_SIZE));
+    }
+    
+    /**
+     * Same scenario on a {@link ConditionBuffer}: producers wait on notFull and
+     * consumers on notEmpty, and every put or take wakes at most one thread of
+     * the other side instead of the whole wait set.
+     */
+    public void runWithConditions() {
+        System.out.println("=== Running example with separate notFull/notEmpty conditions ===");
+        ConditionBuffer<Integer> conditionBuffer = new ConditionBuffer<>(BUFFER_SIZE);
+        runWithBuffer(conditionBuffer);
+        System.out.println("Main: Threads signalled: " + conditionBuffer.getSignals() + 
+                          ", wake-ups: " + conditionBuffer.getWakeups() + 
+                          ", useless wake-ups: " + conditionBuffer.getUselessWakeups());
+        System.out.println("Main: Wake-ups avoided compared with notifyAll(): " + conditionBuffer.getAvoidedWakeups());
+    }
+    
+    /**
+     * Same scenario on a {@link MonitorBuffer} that records {@link BufferMetrics}.
+     * With several consumers waiting on one monitor, every notifyAll() wakes all
+     * of them, which shows up as spurious wake-ups and time spent in wait().
+     */
+    public void runWithMetrics() {
+        System.out.println("=== Running example with buffer metrics ===");
+        BufferMetrics metrics = new BufferMetrics();
+        runWithBuffer(new MonitorBuffer<>(BUFFER_SIZE, metrics));
+        System.out.println("Main: Buffer metrics:\n" + metrics.snapshot());
+    }
+    
+    /**
+     * Same scenario on an {@link IntRingBuffer}: items travel as primitive ints,
+     * so neither the producer nor the consumers allocate per item.
+     */
+    public void runWithIntBuffer() {
+        System.out.println("=== Running example with a primitive int ring buffer ===");
+        
+        final int CONSUMER_COUNT = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        IntRingBuffer intBuffer = new IntRingBuffer(BUFFER_SIZE);
+        AtomicInteger consumedCount = new AtomicInteger();
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    intBuffer.putInt(i);
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + intBuffer.size());
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 50));
+                }
+                for (int c = 0; c < CONSUMER_COUNT; c++) {
+                    intBuffer.putInt(END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting");
+                int itemsConsumed = 0;
+                try {
+                    int item;
+                    while ((item = intBuffer.takeInt()) != END_OF_STREAM) {
+                        itemsConsumed++;
+                        consumedCount.incrementAndGet();
+                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
+                                          ", Items consumed by this consumer: " + itemsConsumed);
+                        
+                        // Simulate varying consumption speeds
+                        Thread.sleep((int)(Math.random() * 200));
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: All threads have finished");
+        System.out.println("Main: Total items produced: " + MAX_ITEMS);
+        System.out.println("Main: Total items consumed: " + consumedCount.get());
+    }
+    
+    /**
+     * Drives the buffers from an {@link OpenLoadGenerator} instead of a producer
+     * that sleeps between items. Requests arrive on a fixed-rate schedule and
+     * three consumers serve them (20 us of work each), with latency measured
+     * from each request's intended send time. The rate doubles until the
+     * consumers saturate, giving a latency-vs-throughput curve per buffer.
+     */
+    public void runWithOpenLoad() {
+        System.out.println("=== Running example with an open-model load generator and " + OPEN_LOAD_CONSUMERS + " consumers ===");
+        OpenLoadGenerator generator = new OpenLoadGenerator(OPEN_LOAD_CONSUMERS, 20_000, 300, threadFactory);
+        System.out.println("Main: Consumer capacity " + String.format("%,.0f", generator.getCapacity()) + " items/s");
+        try {
+            printLoadCurve("MonitorBuffer", generator.sweep(() -> new MonitorBuffer<>(BUFFER_SIZE), 5_000, 400_000));
+            printLoadCurve("ConditionBuffer", generator.sweep(() -> new ConditionBuffer<>(BUFFER_SIZE), 5_000, 400_000));
+            printLoadCurve("MpmcRingBuffer", generator.sweep(() -> new MpmcRingBuffer<>(BUFFER_SIZE), 5_000, 400_000));
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private static void printLoadCurve(String name, List<LoadPoint> points) {
+        System.out.println(name + ":");
+        for (LoadPoint point : points) {
+            System.out.println("  " + point);
+        }
+    }
+    
+    /**
+     * Runs one producer and several consumers over the given buffer. The producer
+     * ends the stream with one marker item per consumer.
+     */
+    private void runWithBuffer(BoundedBuffer<Integer> sharedBuffer) {
+        final int CONSUMER_COUNT = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        AtomicInteger consumedCount = new AtomicInteger();
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    sharedBuffer.put(i);
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + sharedBuffer.size());
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 50));
+                }
+                for (int c = 0; c < CONSUMER_COUNT; c++) {
+                    sharedBuffer.put(END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting");
+                int itemsConsumed = 0;
+                try {
+                    while (true) {
+                        Integer item = sharedBuffer.take();
+                        if (item.equals(END_OF_STREAM)) {
+                            break;
+                        }
+                        itemsConsumed++;
+                        consumedCount.incrementAndGet();
+                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
+                                          ", Items consumed by this consumer: " + itemsConsumed);
+                        
+                        // Simulate varying consumption speeds
+                        Thread.sleep((int)(Math.random() * 200));
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: All threads have finished");
+        System.out.println("Main: Total items produced: " + MAX_ITEMS);
+        System.out.println("Main: Total items consumed: " + consumedCount.get());
+    }
+    
+    /**
+     * Same scenario with batch operations on a {@link MonitorBuffer}: the producer
+     * publishes bursts with putAll() and each consumer takes up to CONSUMER_BATCH
+     * items per lock acquisition with takeBatch(), so the lock is taken and
+     * waiters are woken once per batch instead of once per item.
+     */
+    public void runWithBatches() {
+        System.out.println("=== Running example with batched put/take and multiple consumers ===");
+        
+        final int CONSUMER_COUNT = 3;
+        final int CONSUMER_BATCH = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        MonitorBuffer<Integer> batchBuffer = new MonitorBuffer<>(BUFFER_SIZE);
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicInteger consumedCount = new AtomicInteger();
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                List<Integer> burst = new ArrayList<>(BUFFER_SIZE);
+                for (int i = 0; i < MAX_ITEMS; i += BUFFER_SIZE) {
+                    burst.clear();
+                    for (int j = i; j < Math.min(i + BUFFER_SIZE, MAX_ITEMS); j++) {
+                        burst.add(j);
+                    }
+                    batchBuffer.putAll(burst); // One lock acquisition for the whole burst
+                    System.out.println("Producer: Added items " + burst + ", Buffer size: " + batchBuffer.size());
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 50 * BUFFER_SIZE));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            done.set(true);
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting");
+                int itemsConsumed = 0;
+                try {
+                    while (true) {
+                        // Read before taking: if production had already ended, an empty batch means nothing is left
+                        boolean finished = done.get();
+                        // Wait for at least one item, then take up to CONSUMER_BATCH under the same lock
+                        List<Integer> batch = batchBuffer.takeBatch(1, CONSUMER_BATCH, 50, TimeUnit.MILLISECONDS);
+                        if (batch.isEmpty()) {
+                            if (finished) {
+                                break;
+                            }
+                            continue;
+                        }
+                        itemsConsumed += batch.size();
+                        consumedCount.addAndGet(batch.size());
+                        System.out.println("Consumer-" + consumerId + ": Consumed items " + batch + 
+                                          ", Items consumed by this consumer: " + itemsConsumed);
+                        
+                        // Simulate varying consumption speeds
+                        Thread.sleep((int)(Math.random() * 200));
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: All threads have finished");
+        System.out.println("Main: Total items produced: " + MAX_ITEMS);
+        System.out.println("Main: Total items consumed: " + consumedCount.get());
+        System.out.println("Main: Lock acquisitions: " + batchBuffer.getLockAcquisitions() + 
+                          ", notifyAll() calls: " + batchBuffer.getNotifications());
+    }
+    
+    /**
+     * Same producer and three consumers, but the producer deals items into one
+     * small deque per consumer through a {@link WorkStealingBuffer} instead of
+     * one shared monitor. Consumer c is (c + 1) times slower than consumer 0;
+     * when a fast consumer runs dry it steals from the tail of the fullest deque,
+     * so the slow consumers' backlog is taken over instead of waiting for them.
+     */
+    public void runWithWorkStealing() {
+        System.out.println("=== Running example with a work-stealing consumer pool ===");
+        
+        final int CONSUMER_COUNT = 3;
+        Thread[] consumers = new Thread[CONSUMER_COUNT];
+        WorkStealingBuffer<Integer> pool = new WorkStealingBuffer<>(CONSUMER_COUNT, BUFFER_SIZE);
+        int[] consumedBy = new int[CONSUMER_COUNT];
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    pool.put(i);
+                    System.out.println("Producer: Added item " + i);
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 50));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            pool.close(); // Consumers finish once every deque is empty
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        for (int c = 0; c < CONSUMER_COUNT; c++) {
+            final int consumerId = c;
+            consumers[c] = threadFactory.newThread(() -> {
+                System.out.println("Consumer-" + consumerId + ": Starting");
+                int itemsConsumed = 0;
+                try {
+                    Integer item;
+                    while ((item = pool.take(consumerId)) != null) {
+                        itemsConsumed++;
+                        System.out.println("Consumer-" + consumerId + ": Consumed item " + item + 
+                                          ", Items consumed by this consumer: " + itemsConsumed);
+                        
+                        // Consumers have different speeds: Consumer-2 is three times slower than Consumer-0
+                        Thread.sleep((int)(Math.random() * 100 * (consumerId + 1)));
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                consumedBy[consumerId] = itemsConsumed;
+                System.out.println("Consumer-" + consumerId + ": Finished. Items consumed: " + itemsConsumed);
+            });
+            consumers[c].start();
+        }
+        
+        producer.start();
+        
+        try {
+            producer.join();
+            for (Thread consumer : consumers) {
+                consumer.join();
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: All threads have finished");
+        System.out.println("Main: Items consumed per consumer: " + Arrays.toString(consumedBy));
+        System.out.println("Main: Items stolen from another consumer's deque: " + pool.getSteals());
+        System.out.println("Main: Contended lock acquisitions: " + pool.getContendedAcquisitions() + 
+                          " for " + MAX_ITEMS + " items");
+    }
+    
+    /**
+     * Replaces the single producer-consumer hand-off with a parse -> enrich -> persist
+     * pipeline on one shared, pre-allocated ring:
+     * <pre>
+     *            +-> price (2 workers) -+
+     *   parse ---|                      |--> persist
+     *            +-> stock -------------+
+     * </pre>
+     * Each item is filled in place by every stage; price and stock run side by
+     * side on the same items and persist waits for both.
+     */
+    public void runWithPipeline() {
+        System.out.println("=== Running example as a multi-stage pipeline ===");
+        
+        Pipeline<Order> pipeline = new Pipeline<>(BUFFER_SIZE, Order::new, WaitStrategyType.BLOCKING.create());
+        long[] persistedTotal = new long[1];
+        
+        Pipeline<Order>.Stage parse = pipeline.addStage("parse", 1, (order, seq) -> {
+            order.id = order.raw;
+            order.quantity = order.raw % 7 + 1;
+        });
+        Pipeline<Order>.Stage price = pipeline.addStage("price", 2, (order, seq) -> {
+            Thread.sleep((int)(Math.random() * 20)); // Simulate a slow price lookup
+            order.price = order.quantity * 10;
+        }, parse);
+        Pipeline<Order>.Stage stock = pipeline.addStage("stock", 1, (order, seq) -> {
+            order.inStock = order.id % 5 != 0;
+        }, parse);
+        Pipeline<Order>.Stage persist = pipeline.addStage("persist", 1, (order, seq) -> {
+            if (order.inStock) {
+                persistedTotal[0] += order.price;
+            }
+            System.out.println("Persist: Order " + order.id + ", quantity " + order.quantity + 
+                              ", price " + order.price + (order.inStock ? "" : " (out of stock)"));
+        }, price, stock);
+        
+        pipeline.start(threadFactory);
+        
+        System.out.println("Producer: Starting");
+        try {
+            for (int i = 0; i < MAX_ITEMS; i++) {
+                long seq = pipeline.claim(); // Waits while persist still needs the slot
+                pipeline.get(seq).raw = i;
+                pipeline.publish(seq);
+            }
+            System.out.println("Producer: Finished producing all items");
+            pipeline.drainAndStop();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        for (Pipeline<Order>.Stage stage : Arrays.asList(parse, price, stock, persist)) {
+            System.out.println("Main: Stage " + stage.getName() + " items per worker: " + 
+                              Arrays.toString(stage.getItemsPerWorker()));
+        }
+        System.out.println("Main: Persisted order value: " + persistedTotal[0]);
+        System.out.println("Main: " + MAX_ITEMS + " items went through 4 stages in a ring of " + 
+                          pipeline.capacity() + " pre-allocated entries");
+    }
+    
+    /**
+     * A pipeline entry, allocated once per ring slot and reused for every item
+     * that passes through the slot.
+     */
+    private static class Order {
+        int raw;
+        int id;
+        int quantity;
+        long price;
+        boolean inStock;
+    }
 }
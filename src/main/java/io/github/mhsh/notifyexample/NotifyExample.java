@@ -1,7 +1,16 @@
 package io.github.mhsh.notifyexample;
 
+import io.github.mhsh.notifyexample.waitstrategy.WaitStrategy;
+import io.github.mhsh.notifyexample.waitstrategy.WaitStrategyType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class demonstrates issues when trying to implement producer-consumer
@@ -14,11 +23,24 @@ public class NotifyExample {
     private final int MAX_ITEMS = 20;
     private boolean producerDone = false;
 
+    private final ThreadFactory threadFactory;
+    
+    public NotifyExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public NotifyExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
     public void runWithoutWaitNotify() {
         System.out.println("=== Running example WITHOUT proper wait/notify ===");
 
         // Producer thread - adds items to the buffer
-        Thread producer = new Thread(() -> {
+        Thread producer = threadFactory.newThread(() -> {
             System.out.println("Producer: Starting");
             
             for (int i = 0; i < MAX_ITEMS; i++) {
@@ -46,7 +68,7 @@ public class NotifyExample {
         });
 
         // Consumer thread - removes items from the buffer
-        Thread consumer = new Thread(() -> {
+        Thread consumer = threadFactory.newThread(() -> {
             System.out.println("Consumer: Starting");
             int itemsConsumed = 0;
             
@@ -97,4 +119,123 @@ public class NotifyExample {
         System.out.println("Main: This approach uses busy waiting (Thread.yield()),");
         System.out.println("Main: which wastes CPU cycles and is inefficient.");
     }
+    
+    /**
+     * Same producer and consumer, but every idle wait goes through the given
+     * {@link WaitStrategy} instead of a hard-coded Thread.yield() loop. The run
+     * reports the wake-up latency of both sides (from an item being added until
+     * an idle consumer receives it, and from a slot being freed until a blocked
+     * producer notices) and the CPU time both threads used, so strategies can
+     * be compared on latency and on cost while idle.
+     */
+    public void runWithWaitStrategy(WaitStrategyType type) {
+        System.out.println("=== Running example with the " + type + " wait strategy ===");
+        
+        WaitStrategy waitStrategy = type.create();
+        AtomicBoolean done = new AtomicBoolean(false);
+        // Mirrors buffer.size(); updated under the lock but read without it, so
+        // the spinning strategies do not compete for the monitor they wait on
+        AtomicInteger bufferCount = new AtomicInteger();
+        long[] addedAt = new long[MAX_ITEMS];
+        long[] cpuNanos = new long[2];
+        AtomicLong lastFreedAt = new AtomicLong();
+        long[] producerStats = new long[3]; // total, max, count
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    // Wait for room using the configured strategy
+                    boolean full = bufferCount.get() >= BUFFER_SIZE;
+                    waitStrategy.await(() -> bufferCount.get() < BUFFER_SIZE);
+                    if (full) {
+                        long latency = System.nanoTime() - lastFreedAt.get();
+                        producerStats[0] += latency;
+                        producerStats[1] = Math.max(producerStats[1], latency);
+                        producerStats[2]++;
+                    }
+                    
+                    synchronized (buffer) {
+                        addedAt[i] = System.nanoTime();
+                        buffer.add(i);
+                        bufferCount.set(buffer.size());
+                    }
+                    waitStrategy.signalAll();
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 100));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            done.set(true);
+            waitStrategy.signalAll();
+            cpuNanos[0] = threadBean.getCurrentThreadCpuTime();
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        long[] consumerStats = new long[3]; // total, max, count
+        Thread consumer = threadFactory.newThread(() -> {
+            System.out.println("Consumer: Starting");
+            int itemsConsumed = 0;
+            try {
+                while (true) {
+                    // Only hand-offs to an idle consumer measure the strategy; the rest is queueing time
+                    boolean idle = bufferCount.get() == 0;
+                    
+                    // Wait for an item (or the end of production) using the configured strategy
+                    waitStrategy.await(() -> bufferCount.get() > 0 || done.get());
+                    
+                    Integer item;
+                    long receivedAt;
+                    synchronized (buffer) {
+                        item = buffer.poll();
+                        bufferCount.set(buffer.size());
+                        receivedAt = System.nanoTime();
+                        lastFreedAt.set(receivedAt);
+                    }
+                    if (item == null) {
+                        break; // Producer is done and the buffer is drained
+                    }
+                    waitStrategy.signalAll();
+                    
+                    if (idle) {
+                        long latency = receivedAt - addedAt[item];
+                        consumerStats[0] += latency;
+                        consumerStats[1] = Math.max(consumerStats[1], latency);
+                        consumerStats[2]++;
+                    }
+                    itemsConsumed++;
+                    
+                    // Simulate varying consumption speeds
+                    Thread.sleep((int)(Math.random() * 200));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            cpuNanos[1] = threadBean.getCurrentThreadCpuTime();
+            System.out.println("Consumer: Finished consuming all items. Total: " + itemsConsumed);
+        });
+        
+        producer.start();
+        consumer.start();
+        
+        try {
+            producer.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        printWakeupLatency(type + " consumer", consumerStats);
+        printWakeupLatency(type + " producer", producerStats);
+        System.out.println("Main: " + type + " CPU time: producer " + (cpuNanos[0] / 1_000_000) + 
+                          " ms, consumer " + (cpuNanos[1] / 1_000_000) + " ms");
+    }
+    
+    private void printWakeupLatency(String label, long[] stats) {
+        System.out.println("Main: " + label + " wake-up latency over " + stats[2] + " waits: avg " + 
+                          (stats[0] / Math.max(1, stats[2]) / 1_000) + " us, max " + (stats[1] / 1_000) + " us");
+    }
 }
@@ -1,5 +1,13 @@
 package io.github.mhsh.notifyexample;
 
+import io.github.mhsh.notifyexample.waitstrategy.WaitStrategyType;
+import io.github.mhsh.jfr.ContentionRecording;
+import io.github.mhsh.threads.VirtualThreads;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+
 /**
  * Main class to demonstrate why wait(), notify(), and notifyAll() methods are 
  * important in multithreaded applications.
@@ -7,6 +15,18 @@ package io.github.mhsh.notifyexample;
 public class NotifyImportanceMain {
     
     public static void main(String[] args) {
+        // Pass --virtual to run the workers as virtual threads (Java 21 build)
+        ThreadFactory threadFactory = Thread::new;
+        if (Arrays.asList(args).contains("--virtual")) {
+            if (VirtualThreads.isSupported()) {
+                threadFactory = VirtualThreads.factory("virtual-worker-");
+            } else {
+                System.out.println("Virtual threads are not available (Java 21 and the java21 build profile are needed), using platform threads");
+            }
+        }
+        // Pass --jfr=<file> to record the monitor and work JFR events to <file>
+        ContentionRecording recording = ContentionRecording.startFromArgs(args);
+        
         System.out.println("\n====== DEMONSTRATING THE IMPORTANCE OF wait(), notify(), AND notifyAll() IN MULTITHREADING ======\n");
         
         // Explanation of what wait/notify does
@@ -18,29 +38,77 @@ public class NotifyImportanceMain {
         System.out.println("\nThese methods enable efficient thread coordination without busy waiting.\n");
         
         // Run example without proper wait/notify
-        NotifyExample example1 = new NotifyExample();
+        NotifyExample example1 = new NotifyExample(threadFactory);
         example1.runWithoutWaitNotify();
         
         System.out.println("\n-------------------------------------------------\n");
         
+        // Run the same busy-wait loops with each configurable wait strategy
+        for (WaitStrategyType type : WaitStrategyType.values()) {
+            example1.runWithWaitStrategy(type);
+            System.out.println();
+        }
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
         // Run example with proper wait/notify
-        NotifySolutionExample example2 = new NotifySolutionExample();
+        NotifySolutionExample example2 = new NotifySolutionExample(threadFactory);
         example2.runWithWaitNotify();
         
         System.out.println("\n-------------------------------------------------\n");
         
         // Run example with notifyAll and multiple consumers
-        NotifyAllExample example3 = new NotifyAllExample();
+        NotifyAllExample example3 = new NotifyAllExample(threadFactory);
         example3.runWithMultipleConsumers();
         
         System.out.println("\n-------------------------------------------------\n");
         
         // Run deadlock example
-        DeadlockExample example4 = new DeadlockExample();
+        DeadlockExample example4 = new DeadlockExample(threadFactory);
         example4.runDeadlockScenario();
         
         System.out.println("\n-------------------------------------------------\n");
         
+        // Run the same scenarios on a lock-free ring buffer
+        System.out.println("ALTERNATIVE: LOCK-FREE RING BUFFER INSTEAD OF synchronized(buffer)\n");
+        example2.runWithRingBuffer();
+        System.out.println();
+        example2.runWithSpscQueue();
+        System.out.println();
+        example2.runWithIntBuffer();
+        System.out.println();
+        example2.runWithAdaptiveCapacity();
+        System.out.println();
+        example3.runWithRingBuffer();
+        System.out.println();
+        example3.runWithIntBuffer();
+        System.out.println();
+        example3.runWithBatches();
+        System.out.println();
+        example3.runWithConditions();
+        System.out.println();
+        example3.runWithPipeline();
+        System.out.println();
+        example3.runWithWorkStealing();
+        System.out.println();
+        
+        // Measure the wait()/notifyAll() hand-offs
+        example2.runWithMetrics();
+        System.out.println();
+        example3.runWithMetrics();
+        System.out.println();
+        example4.runWithRingBuffer();
+        System.out.println();
+        example4.runWithWaiterRegistry();
+        System.out.println();
+        
+        // Latency vs throughput under a fixed-rate (open-model) load
+        example2.runWithOpenLoad();
+        System.out.println();
+        example3.runWithOpenLoad();
+        
+        System.out.println("\n-------------------------------------------------\n");
+        
         // Summary of benefits of wait/notify
         System.out.println("\nSUMMARY: BENEFITS OF USING wait(), notify(), AND notifyAll()\n");
         System.out.println("1. Efficiency: Threads sleep instead of busy-waiting, conserving CPU resources");
@@ -56,5 +124,15 @@ public class NotifyImportanceMain {
         System.out.println("4. Consider using higher-level concurrency utilities from java.util.concurrent");
         
         System.out.println("\n====== END OF DEMONSTRATION ======\n");
+        
+        if (recording != null) {
+            try {
+                recording.close();
+                System.out.println("JFR recording written to " + recording.getDestination());
+                System.out.println("Analyze it with: java io.github.mhsh.jfr.ContentionReport " + recording.getDestination());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 }
@@ -1,7 +1,25 @@
 package io.github.mhsh.notifyexample;
 
+import io.github.mhsh.asynclog.AsyncLog;
+import io.github.mhsh.jfr.MonitorAcquireEvent;
+import io.github.mhsh.jfr.MonitorHoldEvent;
+import io.github.mhsh.jfr.MonitorWaitEvent;
+import io.github.mhsh.jfr.WorkItemEvent;
+import io.github.mhsh.notifyexample.buffer.AdaptiveBuffer;
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.buffer.IntRingBuffer;
+import io.github.mhsh.notifyexample.buffer.MonitorBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import io.github.mhsh.notifyexample.buffer.SpscQueue;
+import io.github.mhsh.notifyexample.loadgen.LoadPoint;
+import io.github.mhsh.notifyexample.loadgen.OpenLoadGenerator;
+import io.github.mhsh.notifyexample.metrics.BufferMetrics;
+
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class demonstrates the proper use of wait() and notify() methods
@@ -13,21 +31,43 @@ public class NotifySolutionExample {
     private final int BUFFER_SIZE = 5;
     private final int MAX_ITEMS = 20;
     private boolean producerDone = false;
+    private static final Integer END_OF_STREAM = -1;
+    // Monitor name carried by the JFR events
+    private static final String MONITOR = "NotifySolutionExample.buffer";
+
+    private final ThreadFactory threadFactory;
+    
+    public NotifySolutionExample() {
+        this(Thread::new);
+    }
+    
+    /**
+     * @param threadFactory creates the worker threads, for example virtual threads
+     */
+    public NotifySolutionExample(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
 
     public void runWithWaitNotify() {
         System.out.println("=== Running example WITH proper wait/notify ===");
 
         // Producer thread - adds items to the buffer
-        Thread producer = new Thread(() -> {
-            System.out.println("Producer: Starting");
+        Thread producer = threadFactory.newThread(() -> {
+            AsyncLog.log("Producer: Starting");
             
             for (int i = 0; i < MAX_ITEMS; i++) {
+                MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                 synchronized (buffer) {
+                    acquire.commit(i, buffer.size());
+                    MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                    
                     // Wait if buffer is full
                     while (buffer.size() >= BUFFER_SIZE) {
                         try {
-                            System.out.println("Producer: Buffer full, waiting...");
+                            AsyncLog.log("Producer: Buffer full, waiting...");
+                            MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                             buffer.wait(); // Releases lock and waits to be notified
+                            wait.commit(i, buffer.size());
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
@@ -35,10 +75,11 @@ public class NotifySolutionExample {
                     
                     // Add item to buffer
                     buffer.add(i);
-                    System.out.println("Producer: Added item " + i + ", Buffer size: " + buffer.size());
+                    AsyncLog.log("Producer: Added item {}, Buffer size: {}", i, buffer.size());
                     
                     // Notify consumer that an item is available
                     buffer.notify();
+                    hold.commit(i, buffer.size());
                 }
                 
                 // Simulate varying production speeds
@@ -53,25 +94,31 @@ public class NotifySolutionExample {
             synchronized (buffer) {
                 producerDone = true;
                 buffer.notify(); // Ensure consumer is notified even if buffer is empty
-                System.out.println("Producer: Finished producing all items");
+                AsyncLog.log("Producer: Finished producing all items");
             }
         });
 
         // Consumer thread - removes items from the buffer
-        Thread consumer = new Thread(() -> {
-            System.out.println("Consumer: Starting");
+        Thread consumer = threadFactory.newThread(() -> {
+            AsyncLog.log("Consumer: Starting");
             int itemsConsumed = 0;
             
             // Continue until we've consumed all items and producer is done
             while (!producerDone || !buffer.isEmpty()) {
                 Integer item = null;
                 
+                MonitorAcquireEvent acquire = MonitorAcquireEvent.begin(MONITOR);
                 synchronized (buffer) {
+                    acquire.commit(-1, buffer.size());
+                    MonitorHoldEvent hold = MonitorHoldEvent.begin(MONITOR);
+                    
                     // Wait if buffer is empty and producer isn't done
                     while (buffer.isEmpty() && !producerDone) {
                         try {
-                            System.out.println("Consumer: Buffer empty, waiting...");
+                            AsyncLog.log("Consumer: Buffer empty, waiting...");
+                            MonitorWaitEvent wait = MonitorWaitEvent.begin(MONITOR);
                             buffer.wait(); // Releases lock and waits to be notified
+                            wait.commit(-1, buffer.size());
                         } catch (InterruptedException e) {
                             e.printStackTrace();
                         }
@@ -84,13 +131,15 @@ public class NotifySolutionExample {
                         // Notify producer that space is available
                         buffer.notify();
                     }
+                    hold.commit(item == null ? -1 : item, buffer.size());
                 }
                 
                 // Process the item outside of the synchronized block
                 if (item != null) {
+                    WorkItemEvent work = WorkItemEvent.begin("NotifySolutionExample.consumer");
                     itemsConsumed++;
-                    System.out.println("Consumer: Consumed item " + item + ", Buffer size: " + buffer.size() + 
-                                      ", Total consumed: " + itemsConsumed);
+                    AsyncLog.log("Consumer: Consumed item {}, Buffer size: {}, Total consumed: {}",
+                                 item, buffer.size(), itemsConsumed);
                     
                     // Simulate varying consumption speeds
                     try {
@@ -98,10 +147,11 @@ public class NotifySolutionExample {
                     } catch (InterruptedException e) {
                         e.printStackTrace();
                     }
+                    work.commit(item);
                 }
             }
             
-            System.out.println("Consumer: Finished consuming all items. Total: " + itemsConsumed);
+            AsyncLog.log("Consumer: Finished consuming all items. Total: {}", itemsConsumed);
         });
 
         // Start threads
@@ -116,8 +166,266 @@ public class NotifySolutionExample {
             e.printStackTrace();
         }
 
+        // Let the log writer catch up so the summary comes after the workers' lines
+        AsyncLog.flush();
         System.out.println("Main: Both producer and consumer have finished");
         System.out.println("Main: This approach uses wait/notify for efficient thread coordination");
         System.out.println("Main: Threads don't waste CPU cycles while waiting");
     }
+
+    /**
+     * Same producer-consumer flow, but on a lock-free {@link MpmcRingBuffer}:
+     * put() and take() block only when the buffer is full or empty, and no
+     * monitor is taken per item.
+     */
+    public void runWithRingBuffer() {
+        System.out.println("=== Running example with a lock-free ring buffer ===");
+        runWithBuffer(new MpmcRingBuffer<>(BUFFER_SIZE));
+        System.out.println("Main: The ring buffer hands items over without a shared monitor");
+    }
+    
+    /**
+     * Same producer-consumer flow on a {@link SpscQueue}. With exactly one producer
+     * and one consumer each side owns its own index, so a hand-off is a plain
+     * array write plus one release store, with no CAS and no monitor.
+     */
+    public void runWithSpscQueue() {
+        System.out.println("=== Running example with a single-producer/single-consumer queue ===");
+        runWithBuffer(new SpscQueue<>(BUFFER_SIZE));
+        System.out.println("Main: The SPSC queue hands items over without CAS or a shared monitor");
+    }
+    
+    /**
+     * Same wait()/notify() hand-off on a {@link MonitorBuffer} that records
+     * {@link BufferMetrics}: queue depth, enqueue-to-dequeue latency, time spent
+     * in wait(), notifications and spurious wake-ups.
+     */
+    public void runWithMetrics() {
+        System.out.println("=== Running example with buffer metrics ===");
+        BufferMetrics metrics = new BufferMetrics();
+        runWithBuffer(new MonitorBuffer<>(BUFFER_SIZE, metrics));
+        System.out.println("Main: Buffer metrics:\n" + metrics.snapshot());
+    }
+    
+    /**
+     * Same producer-consumer flow on an {@link IntRingBuffer}: items travel as
+     * primitive ints, so the hand-off allocates no Integer and no list node.
+     */
+    public void runWithIntBuffer() {
+        System.out.println("=== Running example with a primitive int ring buffer ===");
+        IntRingBuffer handoff = new IntRingBuffer(BUFFER_SIZE);
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    handoff.putInt(i);
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + handoff.size());
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 100));
+                }
+                handoff.putInt(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        Thread consumer = threadFactory.newThread(() -> {
+            System.out.println("Consumer: Starting");
+            int itemsConsumed = 0;
+            try {
+                int item;
+                while ((item = handoff.takeInt()) != END_OF_STREAM) {
+                    itemsConsumed++;
+                    System.out.println("Consumer: Consumed item " + item + ", Buffer size: " + handoff.size() + 
+                                      ", Total consumed: " + itemsConsumed);
+                    
+                    // Simulate varying consumption speeds
+                    Thread.sleep((int)(Math.random() * 200));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Consumer: Finished consuming all items. Total: " + itemsConsumed);
+        });
+        
+        producer.start();
+        consumer.start();
+        
+        try {
+            producer.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: Both producer and consumer have finished");
+        System.out.println("Main: Items were handed over as primitive ints, without boxing");
+    }
+    
+    /**
+     * Runs on an {@link AdaptiveBuffer} that starts at 2 slots and may grow to 64.
+     * In the first phase the producer sends bursts of 10 items to a fast
+     * consumer: the producer blocks during every burst while the consumer idles
+     * between them, so the buffer grows. In the second phase a slow consumer
+     * falls behind a steady producer: items sit in a deep queue for longer than
+     * the 200 ms target, so the buffer shrinks again.
+     */
+    public void runWithAdaptiveCapacity() {
+        System.out.println("=== Running example with an adaptive-capacity buffer ===");
+        
+        final int BURSTS = 4;
+        final int BURST_SIZE = 10;
+        final int BACKLOG_ITEMS = 30;
+        final int LAST_BURST_ITEM = BURSTS * BURST_SIZE;
+        AdaptiveBuffer<Integer> adaptive = new AdaptiveBuffer<>(2, 64, 250, 200, TimeUnit.MILLISECONDS);
+        
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                int item = 0;
+                // Phase 1: bursts with pauses in between
+                for (int b = 0; b < BURSTS; b++) {
+                    for (int i = 0; i < BURST_SIZE; i++) {
+                        adaptive.put(item++);
+                    }
+                    System.out.println("Producer: Burst " + b + " sent, capacity now " + adaptive.capacity());
+                    Thread.sleep(300);
+                }
+                // Phase 2: a steady stream the consumer cannot keep up with
+                for (int i = 0; i < BACKLOG_ITEMS; i++) {
+                    adaptive.put(item++);
+                    Thread.sleep(20);
+                }
+                adaptive.put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        Thread consumer = threadFactory.newThread(() -> {
+            System.out.println("Consumer: Starting");
+            int itemsConsumed = 0;
+            try {
+                while (true) {
+                    Integer item = adaptive.take();
+                    if (item.equals(END_OF_STREAM)) {
+                        break;
+                    }
+                    itemsConsumed++;
+                    // Fast during the bursts, slow afterwards
+                    Thread.sleep(item < LAST_BURST_ITEM ? 10 : 80);
+                    if (itemsConsumed % 10 == 0) {
+                        System.out.println("Consumer: " + itemsConsumed + " items consumed, Buffer size: " + 
+                                          adaptive.size() + "/" + adaptive.capacity());
+                    }
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Consumer: Finished consuming all items. Total: " + itemsConsumed);
+        });
+        
+        producer.start();
+        consumer.start();
+        
+        try {
+            producer.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: Resizes: " + adaptive.getRecentResizes());
+        System.out.println("Main: Grown for blocked producers: " + 
+                          adaptive.getResizeCount(AdaptiveBuffer.ResizeReason.PRODUCER_BLOCKED) + 
+                          ", shrunk for high sojourn time: " + 
+                          adaptive.getResizeCount(AdaptiveBuffer.ResizeReason.HIGH_SOJOURN));
+        System.out.println("Main: Final capacity: " + adaptive.capacity());
+    }
+    
+    /**
+     * Replaces the producer's random sleeps with an {@link OpenLoadGenerator}.
+     * Items are sent on a fixed-rate schedule, and each item's latency is
+     * counted from its intended send time, so a consumer that falls behind can
+     * no longer hide the queueing it causes. The rate doubles until the single
+     * consumer (20 us of work per item) saturates, once for each buffer.
+     */
+    public void runWithOpenLoad() {
+        System.out.println("=== Running example with an open-model load generator ===");
+        OpenLoadGenerator generator = new OpenLoadGenerator(1, 20_000, 300, threadFactory);
+        System.out.println("Main: Consumer capacity " + String.format("%,.0f", generator.getCapacity()) + " items/s");
+        try {
+            printLoadCurve("MonitorBuffer", generator.sweep(() -> new MonitorBuffer<>(BUFFER_SIZE), 5_000, 400_000));
+            printLoadCurve("MpmcRingBuffer", generator.sweep(() -> new MpmcRingBuffer<>(BUFFER_SIZE), 5_000, 400_000));
+            printLoadCurve("SpscQueue", generator.sweep(() -> new SpscQueue<>(BUFFER_SIZE), 5_000, 400_000));
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        System.out.println("Main: Past saturation the corrected latency grows with the backlog, while the " + 
+                          "uncorrected latency stays small");
+    }
+    
+    private static void printLoadCurve(String name, List<LoadPoint> points) {
+        System.out.println(name + ":");
+        for (LoadPoint point : points) {
+            System.out.println("  " + point);
+        }
+    }
+    
+    private void runWithBuffer(BoundedBuffer<Integer> handoff) {
+        Thread producer = threadFactory.newThread(() -> {
+            System.out.println("Producer: Starting");
+            try {
+                for (int i = 0; i < MAX_ITEMS; i++) {
+                    handoff.put(i); // Blocks only while the buffer is full
+                    System.out.println("Producer: Added item " + i + ", Buffer size: " + handoff.size());
+                    
+                    // Simulate varying production speeds
+                    Thread.sleep((int)(Math.random() * 100));
+                }
+                handoff.put(END_OF_STREAM); // Tell the consumer there is nothing more to come
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Producer: Finished producing all items");
+        });
+        
+        Thread consumer = threadFactory.newThread(() -> {
+            System.out.println("Consumer: Starting");
+            int itemsConsumed = 0;
+            try {
+                while (true) {
+                    Integer item = handoff.take(); // Blocks only while the buffer is empty
+                    if (item.equals(END_OF_STREAM)) {
+                        break;
+                    }
+                    itemsConsumed++;
+                    System.out.println("Consumer: Consumed item " + item + ", Buffer size: " + handoff.size() + 
+                                      ", Total consumed: " + itemsConsumed);
+                    
+                    // Simulate varying consumption speeds
+                    Thread.sleep((int)(Math.random() * 200));
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            System.out.println("Consumer: Finished consuming all items. Total: " + itemsConsumed);
+        });
+        
+        producer.start();
+        consumer.start();
+        
+        try {
+            producer.join();
+            consumer.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        
+        System.out.println("Main: Both producer and consumer have finished");
+    }
 }
@@ -0,0 +1,351 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded buffer whose capacity moves between a minimum and a maximum
+ * instead of being a fixed {@code BUFFER_SIZE}.
+ *
+ * <p>The buffer looks at its traffic in fixed time windows. At the end of
+ * each window:
+ * <ul>
+ *   <li>if producers often had to block on a full buffer while consumers also
+ *       sat idle on an empty one, the buffer is too small to absorb bursts and
+ *       the capacity doubles ({@link ResizeReason#PRODUCER_BLOCKED});</li>
+ *   <li>otherwise, if items waited longer than the target sojourn time on
+ *       average while the buffer was at least half full, the buffer only adds
+ *       queueing delay and the capacity halves ({@link ResizeReason#HIGH_SOJOURN}).</li>
+ * </ul>
+ * The backing array is reallocated to the new capacity (never below the
+ * number of items it holds), so a shrink also returns the memory. The current
+ * capacity, a count per reason and the most recent resizes are exposed as
+ * metrics.
+ */
+public class AdaptiveBuffer<E> implements BoundedBuffer<E> {
+    private static final double GROW_BLOCK_RATIO = 0.1;
+    private static final int HISTORY_SIZE = 32;
+
+    /**
+     * Why the capacity was changed.
+     */
+    public enum ResizeReason {
+        /** Producers blocked on a full buffer while consumers were idle: grow. */
+        PRODUCER_BLOCKED,
+        /** Items sat in a deep queue longer than the target sojourn time: shrink. */
+        HIGH_SOJOURN
+    }
+
+    /**
+     * One capacity change.
+     */
+    public static final class Resize {
+        private final long timeMillis;
+        private final int from;
+        private final int to;
+        private final ResizeReason reason;
+
+        Resize(long timeMillis, int from, int to, ResizeReason reason) {
+            this.timeMillis = timeMillis;
+            this.from = from;
+            this.to = to;
+            this.reason = reason;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public ResizeReason getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return from + " -> " + to + " (" + reason + ")";
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final int minCapacity;
+    private final int maxCapacity;
+    private final long windowNanos;
+    private final long targetSojournNanos;
+
+    // Everything below is guarded by lock
+    private Object[] items;
+    private long[] enqueuedAt;
+    private int head;
+    private int size;
+    private int capacity;
+    private final long[] resizeCounts = new long[ResizeReason.values().length];
+    private final ArrayDeque<Resize> history = new ArrayDeque<>(HISTORY_SIZE);
+
+    // Statistics of the current window, also guarded by lock
+    private long windowStart = System.nanoTime();
+    private int puts;
+    private int blockedPuts;
+    private int idleTakes;
+    private long depthSum;
+    private int takes;
+    private long sojournSum;
+
+    /**
+     * @param window length of the observation window between resize decisions
+     * @param targetSojourn longest acceptable average time an item waits in the buffer
+     */
+    public AdaptiveBuffer(int minCapacity, int maxCapacity, long window, long targetSojourn, TimeUnit unit) {
+        if (minCapacity < 1 || maxCapacity < minCapacity) {
+            throw new IllegalArgumentException("Invalid capacity bounds: min=" + minCapacity + ", max=" + maxCapacity);
+        }
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+        this.windowNanos = unit.toNanos(window);
+        this.targetSojournNanos = unit.toNanos(targetSojourn);
+        this.capacity = minCapacity;
+        this.items = new Object[minCapacity];
+        this.enqueuedAt = new long[minCapacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        lock.lock();
+        try {
+            adjustIfWindowEnded();
+            if (size >= capacity) {
+                return false;
+            }
+            insert(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(e);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            adjustIfWindowEnded();
+            if (size >= capacity) {
+                blockedPuts++;
+                while (size >= capacity) {
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    remaining = notFull.awaitNanos(remaining);
+                }
+            }
+            insert(e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        lock.lockInterruptibly();
+        try {
+            adjustIfWindowEnded();
+            if (size >= capacity) {
+                blockedPuts++;
+                while (size >= capacity) {
+                    notFull.await();
+                }
+            }
+            insert(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            adjustIfWindowEnded();
+            return size == 0 ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            adjustIfWindowEnded();
+            if (size == 0) {
+                idleTakes++;
+                while (size == 0) {
+                    if (remaining <= 0L) {
+                        return null;
+                    }
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            adjustIfWindowEnded();
+            if (size == 0) {
+                idleTakes++;
+                while (size == 0) {
+                    notEmpty.await();
+                }
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current capacity, which changes over time.
+     */
+    @Override
+    public int capacity() {
+        lock.lock();
+        try {
+            return capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many times the capacity was changed for the given reason.
+     */
+    public long getResizeCount(ResizeReason reason) {
+        lock.lock();
+        try {
+            return resizeCounts[reason.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the most recent resizes, oldest first.
+     */
+    public List<Resize> getRecentResizes() {
+        lock.lock();
+        try {
+            return new ArrayList<>(history);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insert(E e) {
+        int tail = (head + size) % items.length;
+        items[tail] = e;
+        enqueuedAt[tail] = System.nanoTime();
+        size++;
+        puts++;
+        depthSum += size;
+        notEmpty.signal();
+    }
+
+    private E extract() {
+        @SuppressWarnings("unchecked")
+        E e = (E) items[head];
+        items[head] = null;
+        sojournSum += System.nanoTime() - enqueuedAt[head];
+        takes++;
+        head = (head + 1) % items.length;
+        size--;
+        notFull.signal();
+        return e;
+    }
+
+    private void adjustIfWindowEnded() {
+        long now = System.nanoTime();
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        if (blockedPuts > 0 && idleTakes > 0 && blockedPuts >= GROW_BLOCK_RATIO * puts
+                && capacity < maxCapacity) {
+            resize(Math.min(maxCapacity, capacity * 2), ResizeReason.PRODUCER_BLOCKED);
+        } else if (takes > 0 && puts > 0 && sojournSum / takes > targetSojournNanos
+                && depthSum / puts * 2 >= capacity && capacity > minCapacity) {
+            resize(Math.max(minCapacity, capacity / 2), ResizeReason.HIGH_SOJOURN);
+        }
+        windowStart = now;
+        puts = 0;
+        blockedPuts = 0;
+        idleTakes = 0;
+        depthSum = 0L;
+        takes = 0;
+        sojournSum = 0L;
+    }
+
+    private void resize(int newCapacity, ResizeReason reason) {
+        // Keep every buffered item; producers stay blocked until the excess drains
+        int length = Math.max(newCapacity, size);
+        Object[] newItems = new Object[length];
+        long[] newEnqueuedAt = new long[length];
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) % items.length;
+            newItems[i] = items[from];
+            newEnqueuedAt[i] = enqueuedAt[from];
+        }
+        items = newItems;
+        enqueuedAt = newEnqueuedAt;
+        head = 0;
+        
+        if (history.size() == HISTORY_SIZE) {
+            history.removeFirst();
+        }
+        history.addLast(new Resize(System.currentTimeMillis(), capacity, newCapacity, reason));
+        resizeCounts[reason.ordinal()]++;
+        boolean grew = newCapacity > capacity;
+        capacity = newCapacity;
+        if (grew) {
+            notFull.signalAll();
+        }
+    }
+
+    private static void checkNotNull(Object e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+    }
+}
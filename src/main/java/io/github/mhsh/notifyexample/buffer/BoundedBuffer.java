@@ -0,0 +1,112 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded producer-consumer buffer. The examples in this package use it in
+ * place of a {@code LinkedList} guarded by {@code synchronized(buffer)} and
+ * {@code wait()}/{@code notify()}.
+ *
+ * <p>{@code offer}/{@code poll} never block; {@code put}/{@code take} block
+ * until they succeed; the timed variants block up to the given timeout.
+ * Null elements are not allowed.
+ *
+ * <p>The batch operations move many elements per call. Their default
+ * implementations simply loop over the single-element operations;
+ * lock-based buffers override them to take the lock once per batch.
+ */
+public interface BoundedBuffer<E> {
+
+    /**
+     * Adds the element if there is room, returning false if the buffer is full.
+     */
+    boolean offer(E e);
+
+    /**
+     * Adds the element, waiting up to the timeout for room to become available.
+     */
+    boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Adds the element, waiting as long as necessary for room.
+     */
+    void put(E e) throws InterruptedException;
+
+    /**
+     * Removes and returns the head element, or null if the buffer is empty.
+     */
+    E poll();
+
+    /**
+     * Removes the head element, waiting up to the timeout for one to arrive.
+     * Returns null if the timeout elapses first.
+     */
+    E poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes the head element, waiting as long as necessary for one.
+     */
+    E take() throws InterruptedException;
+
+    /**
+     * Returns the number of elements. Under concurrent use this is only an estimate.
+     */
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity();
+
+    /**
+     * Adds every element in order, waiting for room as needed. Elements are
+     * published in bursts of as many as currently fit.
+     */
+    default void putAll(Collection<? extends E> items) throws InterruptedException {
+        for (E e : items) {
+            put(e);
+        }
+    }
+
+    /**
+     * Moves up to {@code maxBatch} immediately available elements into
+     * {@code sink} without blocking.
+     *
+     * @return the number of elements moved
+     */
+    default int drainTo(Collection<? super E> sink, int maxBatch) {
+        int count = 0;
+        E e;
+        while (count < maxBatch && (e = poll()) != null) {
+            sink.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Waits until at least {@code min} elements are available, or the timeout
+     * elapses, and then removes up to {@code max} of them. On timeout whatever
+     * is available is returned, which may be fewer than {@code min} or none.
+     */
+    default List<E> takeBatch(int min, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (min < 0 || max < 1 || min > max) {
+            throw new IllegalArgumentException("Invalid batch bounds: min=" + min + ", max=" + max);
+        }
+        List<E> batch = new ArrayList<>(max);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (batch.size() < min) {
+            E e = poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (e == null) {
+                return batch;
+            }
+            batch.add(e);
+        }
+        drainTo(batch, max - batch.size());
+        return batch;
+    }
+}
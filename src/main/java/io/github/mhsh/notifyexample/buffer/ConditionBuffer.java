@@ -0,0 +1,378 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded buffer on a {@link ReentrantLock} with separate {@code notFull} and
+ * {@code notEmpty} conditions, as the alternative to one monitor and
+ * {@code notifyAll()}.
+ *
+ * <p>Producers only wake consumers and consumers only wake producers, and each
+ * operation signals exactly as many waiters as it created items or free slots
+ * (never more than are actually waiting). A thread that has already been
+ * signalled but has not yet run is not signalled again.
+ *
+ * <p>{@code takeBatch} waiters need several items, not one, so they wait on a
+ * condition of their own. They are all woken once the buffer holds enough
+ * items for the smallest batch anyone is waiting for. A single-item signal can
+ * therefore never land on a batch waiter that would just go back to waiting.
+ *
+ * <p>The buffer counts how many waiters were woken, how many of those woke up
+ * and still could not proceed, and how many wake-ups were avoided compared with
+ * calling {@code notifyAll()} on a single monitor for every change.
+ */
+public class ConditionBuffer<E> implements BoundedBuffer<E> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition batchReady = lock.newCondition();
+    private final ArrayDeque<E> items;
+    private final int capacity;
+
+    // Everything below is guarded by lock
+    private int waitingProducers;
+    private int waitingConsumers;
+    private int pendingProducerSignals;
+    private int pendingConsumerSignals;
+    // Items each waiting takeBatch call needs, smallest first
+    private final PriorityQueue<Integer> batchNeeds = new PriorityQueue<>();
+    private long signals;
+    private long wakeups;
+    private long uselessWakeups;
+    private long avoidedWakeups;
+
+    public ConditionBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        lock.lock();
+        try {
+            if (items.size() >= capacity) {
+                return false;
+            }
+            items.add(e);
+            wakeConsumers(1);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(e);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() >= capacity) {
+                if (remaining <= 0L) {
+                    return false;
+                }
+                remaining = awaitNotFull(remaining);
+            }
+            items.add(e);
+            wakeConsumers(1);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() >= capacity) {
+                awaitNotFull(-1L);
+            }
+            items.add(e);
+            wakeConsumers(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            E e = items.poll();
+            if (e != null) {
+                wakeProducers(1);
+            }
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.isEmpty()) {
+                if (remaining <= 0L) {
+                    return null;
+                }
+                remaining = awaitNotEmpty(remaining);
+            }
+            E e = items.poll();
+            wakeProducers(1);
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (items.isEmpty()) {
+                awaitNotEmpty(-1L);
+            }
+            E e = items.poll();
+            wakeProducers(1);
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends E> batch) throws InterruptedException {
+        Iterator<? extends E> it = batch.iterator();
+        lock.lockInterruptibly();
+        try {
+            while (it.hasNext()) {
+                while (items.size() >= capacity) {
+                    awaitNotFull(-1L);
+                }
+                int added = 0;
+                while (it.hasNext() && items.size() < capacity) {
+                    E e = it.next();
+                    checkNotNull(e);
+                    items.add(e);
+                    added++;
+                }
+                wakeConsumers(added);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> sink, int maxBatch) {
+        lock.lock();
+        try {
+            int count = moveTo(sink, maxBatch);
+            wakeProducers(count);
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<E> takeBatch(int min, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (min < 0 || max < 1 || min > max) {
+            throw new IllegalArgumentException("Invalid batch bounds: min=" + min + ", max=" + max);
+        }
+        int needed = Math.min(min, capacity);
+        long remaining = unit.toNanos(timeout);
+        List<E> batch = new ArrayList<>(Math.min(max, capacity));
+        lock.lockInterruptibly();
+        try {
+            while (items.size() < needed && remaining > 0L) {
+                remaining = needed == 1 ? awaitNotEmpty(remaining) : awaitBatch(needed, remaining);
+            }
+            wakeProducers(moveTo(batch, max));
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of waiting threads that have been signalled.
+     */
+    public long getSignals() {
+        lock.lock();
+        try {
+            return signals;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a waiting thread has returned from waiting.
+     */
+    public long getWakeups() {
+        lock.lock();
+        try {
+            return wakeups;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of wake-ups after which the thread still could not
+     * proceed and had to wait again.
+     */
+    public long getUselessWakeups() {
+        lock.lock();
+        try {
+            return uselessWakeups;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many wake-ups, and so context switches, were saved compared
+     * with waking every waiting thread on every state change.
+     */
+    public long getAvoidedWakeups() {
+        lock.lock();
+        try {
+            return avoidedWakeups;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void wakeConsumers(int newItems) {
+        int unsignalled = waitingConsumers - pendingConsumerSignals;
+        int toWake = Math.min(newItems, unsignalled);
+        Integer smallestBatch = batchNeeds.peek();
+        int batchToWake = smallestBatch != null && items.size() >= smallestBatch ? batchNeeds.size() : 0;
+        countAvoided(toWake + batchToWake);
+        pendingConsumerSignals += toWake;
+        for (int i = 0; i < toWake; i++) {
+            notEmpty.signal();
+        }
+        if (batchToWake > 0) {
+            batchReady.signalAll();
+        }
+    }
+
+    private void wakeProducers(int freedSlots) {
+        int unsignalled = waitingProducers - pendingProducerSignals;
+        int toWake = Math.min(freedSlots, unsignalled);
+        countAvoided(toWake);
+        pendingProducerSignals += toWake;
+        for (int i = 0; i < toWake; i++) {
+            notFull.signal();
+        }
+    }
+
+    private void countAvoided(int toWake) {
+        // notifyAll() on one monitor would have woken every thread not already signalled
+        int wouldWake = (waitingConsumers - pendingConsumerSignals) + (waitingProducers - pendingProducerSignals)
+                + batchNeeds.size();
+        avoidedWakeups += wouldWake - toWake;
+        signals += toWake;
+    }
+
+    private long awaitNotFull(long timeoutNanos) throws InterruptedException {
+        waitingProducers++;
+        try {
+            return timeoutNanos < 0L ? await(notFull) : notFull.awaitNanos(timeoutNanos);
+        } finally {
+            waitingProducers--;
+            if (pendingProducerSignals > 0) {
+                pendingProducerSignals--;
+            }
+            wakeups++;
+            if (items.size() >= capacity) {
+                uselessWakeups++;
+            }
+        }
+    }
+
+    private long awaitNotEmpty(long timeoutNanos) throws InterruptedException {
+        waitingConsumers++;
+        try {
+            return timeoutNanos < 0L ? await(notEmpty) : notEmpty.awaitNanos(timeoutNanos);
+        } finally {
+            waitingConsumers--;
+            if (pendingConsumerSignals > 0) {
+                pendingConsumerSignals--;
+            }
+            wakeups++;
+            if (items.isEmpty()) {
+                uselessWakeups++;
+            }
+        }
+    }
+
+    private long awaitBatch(int needed, long timeoutNanos) throws InterruptedException {
+        Integer need = needed;
+        batchNeeds.add(need);
+        try {
+            return batchReady.awaitNanos(timeoutNanos);
+        } finally {
+            batchNeeds.remove(need);
+            wakeups++;
+            if (items.size() < needed) {
+                uselessWakeups++;
+            }
+        }
+    }
+
+    private static long await(Condition condition) throws InterruptedException {
+        condition.await();
+        return -1L;
+    }
+
+    private int moveTo(Collection<? super E> sink, int maxBatch) {
+        int count = 0;
+        E e;
+        while (count < maxBatch && (e = items.poll()) != null) {
+            sink.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    private static void checkNotNull(Object e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * A bounded multi-producer/multi-consumer queue of primitive {@code int}s, the
+ * unboxed counterpart of {@link MpmcRingBuffer}. Values are stored in an
+ * {@code int[]}, so handing over an item allocates no {@code Integer} and no
+ * list node: offering and polling allocate nothing after construction. Only a
+ * thread that actually has to park allocates the lock's wait node.
+ */
+public class IntRingBuffer {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ENQUEUE_POS;
+    private static final VarHandle DEQUEUE_POS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ENQUEUE_POS = lookup.findVarHandle(IntRingBuffer.class, "enqueuePos", long.class);
+            DEQUEUE_POS = lookup.findVarHandle(IntRingBuffer.class, "dequeuePos", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int mask;
+    private final long[] sequences;
+    private final int[] values;
+    private final Signal notEmpty = new Signal();
+    private final Signal notFull = new Signal();
+    // Created once so that blocking does not allocate a lambda per wait
+    private final BooleanSupplier hasElement = this::hasElement;
+    private final BooleanSupplier hasFreeSlot = this::hasFreeSlot;
+
+    // Producer and consumer indices on separate cache lines
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private volatile long enqueuePos;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+    private volatile long dequeuePos;
+    @SuppressWarnings("unused")
+    private long p21, p22, p23, p24, p25, p26, p27;
+
+    /**
+     * @param requestedCapacity minimum capacity; rounded up to a power of two
+     */
+    public IntRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + requestedCapacity);
+        }
+        int capacity = requestedCapacity == 1 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new long[capacity];
+        this.values = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    /**
+     * Adds a value if there is room.
+     *
+     * @return false if the buffer is full
+     */
+    public boolean offerInt(int value) {
+        long pos = enqueuePos;
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - pos;
+            if (diff == 0L) {
+                if (ENQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                    values[index] = value;
+                    SEQUENCE.setRelease(sequences, index, pos + 1);
+                    notEmpty.signal();
+                    return true;
+                }
+                pos = enqueuePos;
+            } else if (diff < 0L) {
+                return false;
+            } else {
+                pos = enqueuePos;
+            }
+        }
+    }
+
+    /**
+     * Adds a value, waiting up to the timeout for room.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean offerInt(int value, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + Signal.toNanos(timeout, unit);
+        while (!offerInt(value)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L || !notFull.await(hasFreeSlot, remaining)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a value, waiting for room if necessary.
+     */
+    public void putInt(int value) throws InterruptedException {
+        while (!offerInt(value)) {
+            notFull.await(hasFreeSlot, -1L);
+        }
+    }
+
+    /**
+     * Removes the oldest value.
+     *
+     * @param valueIfEmpty returned when the buffer is empty
+     */
+    public int pollInt(int valueIfEmpty) {
+        long pos = dequeuePos;
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - (pos + 1);
+            if (diff == 0L) {
+                if (DEQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                    int value = values[index];
+                    SEQUENCE.setRelease(sequences, index, pos + mask + 1);
+                    notFull.signal();
+                    return value;
+                }
+                pos = dequeuePos;
+            } else if (diff < 0L) {
+                return valueIfEmpty;
+            } else {
+                pos = dequeuePos;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest value, waiting for one if necessary.
+     */
+    public int takeInt() throws InterruptedException {
+        while (true) {
+            // Claim a position directly: no value is reserved as an "empty" marker
+            long pos = dequeuePos;
+            int index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - (pos + 1);
+            if (diff == 0L) {
+                if (DEQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                    int value = values[index];
+                    SEQUENCE.setRelease(sequences, index, pos + mask + 1);
+                    notFull.signal();
+                    return value;
+                }
+            } else if (diff < 0L) {
+                notEmpty.await(hasElement, -1L);
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code maxValues} values and passes each to {@code sink}.
+     *
+     * @return the number of values removed
+     */
+    public int drainTo(IntConsumer sink, int maxValues) {
+        int count = 0;
+        while (count < maxValues) {
+            long pos = dequeuePos;
+            int index = (int) pos & mask;
+            long diff = (long) SEQUENCE.getAcquire(sequences, index) - (pos + 1);
+            if (diff < 0L) {
+                break;
+            }
+            if (diff == 0L && DEQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                int value = values[index];
+                SEQUENCE.setRelease(sequences, index, pos + mask + 1);
+                notFull.signal();
+                sink.accept(value);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        long head = dequeuePos;
+        long tail = enqueuePos;
+        return (int) Math.max(0L, Math.min(tail - head, mask + 1L));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private boolean hasElement() {
+        long pos = dequeuePos;
+        return (long) SEQUENCE.getAcquire(sequences, (int) pos & mask) - (pos + 1) >= 0L;
+    }
+
+    private boolean hasFreeSlot() {
+        long pos = enqueuePos;
+        return (long) SEQUENCE.getAcquire(sequences, (int) pos & mask) - pos >= 0L;
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import io.github.mhsh.notifyexample.metrics.BufferMetrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The classic {@code synchronized} + {@code wait()}/{@code notifyAll()} buffer
+ * from the examples, packaged as a {@link BoundedBuffer} with real batch
+ * operations: {@link #putAll}, {@link #drainTo} and {@link #takeBatch} move a
+ * whole burst of elements per lock acquisition and wake waiters once per
+ * burst instead of once per element.
+ *
+ * <p>It counts lock acquisitions and {@code notifyAll()} calls so the batch
+ * and single-element paths can be compared. Given a {@link BufferMetrics} it
+ * also records queue depth, enqueue-to-dequeue latency, time spent in
+ * {@code wait()}, notifications and wake-ups that found their condition still
+ * false.
+ */
+public class MonitorBuffer<E> implements BoundedBuffer<E> {
+    private final Object lock = new Object();
+    private final ArrayDeque<E> items;
+    private final int capacity;
+    private final BufferMetrics metrics;
+    // Enqueue time of each item, in the same FIFO order as items; null without metrics
+    private final long[] enqueuedAt;
+
+    // Guarded by lock
+    private long lockAcquisitions;
+    private long notifications;
+    private int oldest;
+
+    public MonitorBuffer(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param metrics receives the buffer's measurements, or null to record none
+     */
+    public MonitorBuffer(int capacity, BufferMetrics metrics) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new ArrayDeque<>(capacity);
+        this.metrics = metrics;
+        this.enqueuedAt = metrics == null ? null : new long[capacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            lockAcquisitions++;
+            if (items.size() >= capacity) {
+                return false;
+            }
+            enqueue(e);
+            wakeAll();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            lockAcquisitions++;
+            for (int round = 0; items.size() >= capacity; round++) {
+                if (!waitUntil(deadline, round)) {
+                    return false;
+                }
+            }
+            enqueue(e);
+            wakeAll();
+            return true;
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            lockAcquisitions++;
+            for (int round = 0; items.size() >= capacity; round++) {
+                awaitNotification(round);
+            }
+            enqueue(e);
+            wakeAll();
+        }
+    }
+
+    @Override
+    public E poll() {
+        synchronized (lock) {
+            lockAcquisitions++;
+            if (items.isEmpty()) {
+                return null;
+            }
+            E e = dequeue();
+            wakeAll();
+            return e;
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            lockAcquisitions++;
+            for (int round = 0; items.isEmpty(); round++) {
+                if (!waitUntil(deadline, round)) {
+                    return null;
+                }
+            }
+            E e = dequeue();
+            wakeAll();
+            return e;
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        synchronized (lock) {
+            lockAcquisitions++;
+            for (int round = 0; items.isEmpty(); round++) {
+                awaitNotification(round);
+            }
+            E e = dequeue();
+            wakeAll();
+            return e;
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends E> batch) throws InterruptedException {
+        // Reject nulls before anything is enqueued, so a burst never ends halfway
+        // with items in the buffer and the consumers not woken for them
+        for (E e : batch) {
+            if (e == null) {
+                throw new NullPointerException();
+            }
+        }
+        Iterator<? extends E> it = batch.iterator();
+        synchronized (lock) {
+            lockAcquisitions++;
+            while (it.hasNext()) {
+                for (int round = 0; items.size() >= capacity; round++) {
+                    awaitNotification(round);
+                }
+                // Publish as many as fit, then wake the consumers once for the whole burst
+                while (it.hasNext() && items.size() < capacity) {
+                    enqueue(it.next());
+                }
+                wakeAll();
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> sink, int maxBatch) {
+        synchronized (lock) {
+            lockAcquisitions++;
+            int count = moveTo(sink, maxBatch);
+            if (count > 0) {
+                wakeAll();
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public List<E> takeBatch(int min, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (min < 0 || max < 1 || min > max) {
+            throw new IllegalArgumentException("Invalid batch bounds: min=" + min + ", max=" + max);
+        }
+        // A batch can never be bigger than the buffer, so never wait for more than that
+        int needed = Math.min(min, capacity);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<E> batch = new ArrayList<>(Math.min(max, capacity));
+        synchronized (lock) {
+            lockAcquisitions++;
+            for (int round = 0; items.size() < needed; round++) {
+                if (!waitUntil(deadline, round)) {
+                    break;
+                }
+            }
+            if (moveTo(batch, max) > 0) {
+                wakeAll();
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            lockAcquisitions++;
+            return items.size();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns how many times the buffer's lock has been taken by buffer operations.
+     */
+    public long getLockAcquisitions() {
+        synchronized (lock) {
+            return lockAcquisitions;
+        }
+    }
+
+    /**
+     * Returns how many times waiting threads have been woken with {@code notifyAll()}.
+     */
+    public long getNotifications() {
+        synchronized (lock) {
+            return notifications;
+        }
+    }
+
+    private int moveTo(Collection<? super E> sink, int maxBatch) {
+        int count = 0;
+        while (count < maxBatch && !items.isEmpty()) {
+            sink.add(dequeue());
+            count++;
+        }
+        return count;
+    }
+
+    // enqueue(), dequeue(), wakeAll() and the waits below must hold the lock
+
+    private void enqueue(E e) {
+        if (metrics != null) {
+            enqueuedAt[(oldest + items.size()) % capacity] = System.nanoTime();
+            metrics.recordDepth(items.size() + 1);
+        }
+        items.add(e);
+    }
+
+    private E dequeue() {
+        if (metrics != null) {
+            metrics.recordLatency(System.nanoTime() - enqueuedAt[oldest]);
+            oldest = (oldest + 1) % capacity;
+        }
+        return items.poll();
+    }
+
+    private void wakeAll() {
+        notifications++;
+        if (metrics != null) {
+            metrics.recordNotification();
+        }
+        lock.notifyAll();
+    }
+
+    /**
+     * Waits on the lock until notified. A round above zero means the previous
+     * wake-up left the caller's condition false.
+     */
+    private void awaitNotification(int round) throws InterruptedException {
+        if (metrics == null) {
+            lock.wait();
+            return;
+        }
+        if (round > 0) {
+            metrics.recordSpuriousWakeup();
+        }
+        long start = System.nanoTime();
+        try {
+            lock.wait();
+        } finally {
+            metrics.recordWait(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Waits on the lock until notified or the deadline passes.
+     *
+     * @return false if the deadline has already passed
+     */
+    private boolean waitUntil(long deadline, int round) throws InterruptedException {
+        long start = System.nanoTime();
+        long remaining = deadline - start;
+        if (remaining <= 0L) {
+            return false;
+        }
+        if (metrics == null) {
+            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+            return true;
+        }
+        if (round > 0) {
+            metrics.recordSpuriousWakeup();
+        }
+        try {
+            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        } finally {
+            metrics.recordWait(System.nanoTime() - start);
+        }
+        return true;
+    }
+}
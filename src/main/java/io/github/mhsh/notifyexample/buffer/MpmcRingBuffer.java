@@ -0,0 +1,187 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded multi-producer/multi-consumer queue after Dmitry Vyukov's design.
+ *
+ * <p>The elements live in a power-of-two array. Every slot carries a sequence
+ * number that tells producers and consumers whose turn it is: a producer at
+ * position {@code p} may write the slot once its sequence equals {@code p}, and
+ * publishes the element by setting it to {@code p + 1}; a consumer at position
+ * {@code p} may read it once the sequence equals {@code p + 1}, and frees the
+ * slot by setting it to {@code p + capacity}. Producers and consumers each
+ * claim positions with one CAS on their own index, so they never contend with
+ * each other and nothing is allocated per element.
+ */
+public class MpmcRingBuffer<E> implements BoundedBuffer<E> {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle ENQUEUE_POS;
+    private static final VarHandle DEQUEUE_POS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ENQUEUE_POS = lookup.findVarHandle(MpmcRingBuffer.class, "enqueuePos", long.class);
+            DEQUEUE_POS = lookup.findVarHandle(MpmcRingBuffer.class, "dequeuePos", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int mask;
+    private final long[] sequences;
+    private final Object[] elements;
+    private final Signal notEmpty = new Signal();
+    private final Signal notFull = new Signal();
+
+    // Producer and consumer indices on separate cache lines
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private volatile long enqueuePos;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+    private volatile long dequeuePos;
+    @SuppressWarnings("unused")
+    private long p21, p22, p23, p24, p25, p26, p27;
+
+    /**
+     * @param requestedCapacity minimum capacity; rounded up to a power of two
+     */
+    public MpmcRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + requestedCapacity);
+        }
+        int capacity = requestedCapacity == 1 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new long[capacity];
+        this.elements = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long pos = enqueuePos;
+        while (true) {
+            int index = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, index);
+            long diff = seq - pos;
+            if (diff == 0L) {
+                if (ENQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                    ELEMENT.set(elements, index, e);
+                    SEQUENCE.setRelease(sequences, index, pos + 1);
+                    notEmpty.signal();
+                    return true;
+                }
+                pos = enqueuePos;
+            } else if (diff < 0L) {
+                // The slot still holds an element from the previous lap: full
+                return false;
+            } else {
+                // Another producer claimed this position first
+                pos = enqueuePos;
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + Signal.toNanos(timeout, unit);
+        while (!offer(e)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L || !notFull.await(this::hasFreeSlot, remaining)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            notFull.await(this::hasFreeSlot, -1L);
+        }
+    }
+
+    @Override
+    public E poll() {
+        long pos = dequeuePos;
+        while (true) {
+            int index = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, index);
+            long diff = seq - (pos + 1);
+            if (diff == 0L) {
+                if (DEQUEUE_POS.compareAndSet(this, pos, pos + 1)) {
+                    @SuppressWarnings("unchecked")
+                    E e = (E) ELEMENT.get(elements, index);
+                    ELEMENT.set(elements, index, null);
+                    SEQUENCE.setRelease(sequences, index, pos + mask + 1);
+                    notFull.signal();
+                    return e;
+                }
+                pos = dequeuePos;
+            } else if (diff < 0L) {
+                // The producer for this position has not published yet: empty
+                return null;
+            } else {
+                pos = dequeuePos;
+            }
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + Signal.toNanos(timeout, unit);
+        E e;
+        while ((e = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L || !notEmpty.await(this::hasElement, remaining)) {
+                return null;
+            }
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll()) == null) {
+            notEmpty.await(this::hasElement, -1L);
+        }
+        return e;
+    }
+
+    @Override
+    public int size() {
+        // Read the consumer index first so the difference can only overestimate
+        long head = dequeuePos;
+        long tail = enqueuePos;
+        return (int) Math.max(0L, Math.min(tail - head, mask + 1L));
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // A sequence ahead of the expected value means our index read was stale;
+    // report ready so the caller retries instead of sleeping on an old state
+
+    private boolean hasElement() {
+        long pos = dequeuePos;
+        return (long) SEQUENCE.getAcquire(sequences, (int) pos & mask) - (pos + 1) >= 0L;
+    }
+
+    private boolean hasFreeSlot() {
+        long pos = enqueuePos;
+        return (long) SEQUENCE.getAcquire(sequences, (int) pos & mask) - pos >= 0L;
+    }
+}
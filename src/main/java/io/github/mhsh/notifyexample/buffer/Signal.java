@@ -0,0 +1,95 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Blocking support for the lock-free buffers. Threads that cannot make progress
+ * spin briefly and then park on a condition; the other side only takes the lock
+ * to wake them when a waiter is actually registered, so the uncontended fast
+ * path stays lock-free.
+ */
+final class Signal {
+    private static final int SPIN_TRIES = 100;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition condition = lock.newCondition();
+    private volatile int waiters;
+
+    /**
+     * Waits until {@code ready} returns true.
+     *
+     * @param timeoutNanos maximum time to wait, or a negative value to wait forever
+     * @return true if {@code ready} became true, false on timeout
+     */
+    boolean await(BooleanSupplier ready, long timeoutNanos) throws InterruptedException {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            if (ready.getAsBoolean()) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        boolean timed = timeoutNanos >= 0;
+        long remaining = timeoutNanos;
+        lock.lockInterruptibly();
+        try {
+            waiters++;
+            // Pairs with the fence in signal(): either we see the new state or it sees us waiting
+            VarHandle.fullFence();
+            try {
+                while (!ready.getAsBoolean()) {
+                    if (!timed) {
+                        condition.await();
+                    } else if (remaining <= 0L) {
+                        return false;
+                    } else {
+                        remaining = condition.awaitNanos(remaining);
+                    }
+                }
+                return true;
+            } finally {
+                waiters--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes one waiting thread, if any. Must be called after the state change
+     * that the waiter is waiting for has been published.
+     */
+    void signal() {
+        VarHandle.fullFence();
+        if (waiters > 0) {
+            lock.lock();
+            try {
+                condition.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wakes every waiting thread, if any.
+     */
+    void signalAll() {
+        VarHandle.fullFence();
+        if (waiters > 0) {
+            lock.lock();
+            try {
+                condition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static long toNanos(long timeout, TimeUnit unit) {
+        return Math.max(0L, unit.toNanos(timeout));
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded single-producer/single-consumer queue. Exactly one thread may call
+ * the offer/put methods and exactly one (other) thread the poll/take methods.
+ *
+ * <p>With one writer per index no CAS is needed: {@code offer} and {@code poll}
+ * are wait-free and finish in a fixed number of steps. Each side owns its index
+ * and publishes it with a release store ({@code lazySet}), and keeps a cached
+ * copy of the other side's index so it only reads the shared cache line when
+ * the cached value says the queue looks full (or empty). The two sides' fields
+ * are padded onto separate cache lines.
+ *
+ * <p>Only the blocking methods wake the other side. {@code put} and
+ * {@code take} (and their timed variants) signal a parked partner, which needs
+ * a full fence; {@code offer} and {@code poll} do not, so they stay free of
+ * fences. A thread parked in a blocking method therefore also re-checks the
+ * queue every {@link #RECHECK_NANOS}, in case its partner only uses the
+ * non-blocking methods.
+ */
+public class SpscQueue<E> implements BoundedBuffer<E> {
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+    // Longest a blocked thread parks before re-checking, when nobody signals it
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(SpscQueue.class, "tail", long.class);
+            HEAD = lookup.findVarHandle(SpscQueue.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int mask;
+    private final Object[] elements;
+    private final Signal notEmpty = new Signal();
+    private final Signal notFull = new Signal();
+
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+    // Producer side: written only by the producer thread
+    private volatile long tail;
+    private long headCache;
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+    // Consumer side: written only by the consumer thread
+    private volatile long head;
+    private long tailCache;
+    @SuppressWarnings("unused")
+    private long p21, p22, p23, p24, p25, p26, p27;
+
+    /**
+     * @param requestedCapacity minimum capacity; rounded up to a power of two
+     */
+    public SpscQueue(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + requestedCapacity);
+        }
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long t = (long) TAIL.getOpaque(this);
+        if (t - headCache > mask) {
+            // Looks full from the cached head: refresh it from the consumer
+            headCache = (long) HEAD.getAcquire(this);
+            if (t - headCache > mask) {
+                return false;
+            }
+        }
+        ELEMENT.set(elements, (int) t & mask, e);
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + Signal.toNanos(timeout, unit);
+        while (!offer(e)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return false;
+            }
+            notFull.await(this::hasFreeSlot, Math.min(remaining, RECHECK_NANOS));
+        }
+        notEmpty.signal();
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            notFull.await(this::hasFreeSlot, RECHECK_NANOS);
+        }
+        notEmpty.signal();
+    }
+
+    @Override
+    public E poll() {
+        long h = (long) HEAD.getOpaque(this);
+        if (h >= tailCache) {
+            // Looks empty from the cached tail: refresh it from the producer
+            tailCache = (long) TAIL.getAcquire(this);
+            if (h >= tailCache) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        @SuppressWarnings("unchecked")
+        E e = (E) ELEMENT.get(elements, index);
+        ELEMENT.set(elements, index, null);
+        HEAD.setRelease(this, h + 1);
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + Signal.toNanos(timeout, unit);
+        E e;
+        while ((e = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return null;
+            }
+            notEmpty.await(this::hasElement, Math.min(remaining, RECHECK_NANOS));
+        }
+        notFull.signal();
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll()) == null) {
+            notEmpty.await(this::hasElement, RECHECK_NANOS);
+        }
+        notFull.signal();
+        return e;
+    }
+
+    @Override
+    public int size() {
+        long h = head;
+        long t = tail;
+        return (int) Math.max(0L, Math.min(t - h, mask + 1L));
+    }
+
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private boolean hasElement() {
+        return tail > head;
+    }
+
+    private boolean hasFreeSlot() {
+        return tail - head <= mask;
+    }
+}
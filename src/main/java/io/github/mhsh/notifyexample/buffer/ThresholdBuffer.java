@@ -0,0 +1,128 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded buffer for consumers that each wait for a different amount of
+ * buffered items, as in {@code DeadlockExample}. Instead of one shared wait set
+ * it keeps its waiters in {@link WaiterRegistry} indexes, so every change wakes
+ * only the threads whose threshold is now met: a put never wakes a consumer
+ * that still wants more items, and never wakes the producer.
+ *
+ * <p>Once {@link #close() closed}, consumers stop waiting for their threshold
+ * and drain whatever is left, then receive {@code null}.
+ */
+public class ThresholdBuffer<E> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final WaiterRegistry consumers = new WaiterRegistry(lock);
+    private final WaiterRegistry producers = new WaiterRegistry(lock);
+    private final ArrayDeque<E> items;
+    private final int capacity;
+
+    // Guarded by lock
+    private boolean closed;
+
+    public ThresholdBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.items = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Adds the element, waiting while the buffer is full.
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        lock.lockInterruptibly();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Buffer is closed");
+            }
+            producers.awaitAtMost(capacity - 1, items::size, -1L);
+            items.add(e);
+            // Wake at most one consumer per buffered item, and only those whose threshold is met
+            consumers.stateChanged(items.size(), items.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until at least {@code minSize} items are buffered and removes one.
+     * A threshold above the capacity is treated as a full buffer. After {@link #close()} it removes any remaining item without waiting, and
+     * returns null once the buffer is empty.
+     */
+    public E takeWhenAtLeast(int minSize) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            // A closed buffer reports an unbounded size so every threshold is met
+            consumers.awaitAtLeast(Math.min(minSize, capacity), this::consumerView, -1L);
+            E e = items.poll();
+            if (e != null) {
+                producers.stateChanged(items.size(), capacity - items.size());
+            }
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of the stream and releases every waiting consumer.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            consumers.wakeAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of threads woken so far, producers and consumers together.
+     */
+    public long getWakeups() {
+        lock.lock();
+        try {
+            return consumers.getWakeups() + producers.getWakeups();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of wake-ups after which the thread's condition no longer held.
+     */
+    public long getUselessWakeups() {
+        lock.lock();
+        try {
+            return consumers.getUselessWakeups() + producers.getUselessWakeups();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long consumerView() {
+        return closed ? Long.MAX_VALUE : items.size();
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Wait-set replacement that wakes only the threads whose condition has become
+ * true. Each waiter registers what it is waiting for over a single {@code long}
+ * state (for a buffer, its size):
+ * <ul>
+ *   <li>{@link #awaitAtLeast}: state {@code >= threshold}</li>
+ *   <li>{@link #awaitAtMost}: state {@code <= threshold}</li>
+ *   <li>{@link #await}: an arbitrary predicate over the state</li>
+ * </ul>
+ * Threshold waiters are kept in sorted maps, so a state change finds exactly
+ * the satisfied waiters in {@code O(log n + woken)} no matter how many
+ * thousands are registered. Predicate waiters cannot be indexed and are
+ * evaluated one by one, so thresholds should be preferred.
+ *
+ * <p>The registry is guarded by the owner's {@link Lock}: every method must be
+ * called while holding it, and the await methods release it while parked, like
+ * {@link java.util.concurrent.locks.Condition}.
+ */
+public class WaiterRegistry {
+    private final Lock lock;
+    private final NavigableMap<Long, List<Waiter>> atLeast = new TreeMap<>();
+    private final NavigableMap<Long, List<Waiter>> atMost = new TreeMap<>();
+    private final List<Waiter> predicates = new ArrayList<>();
+
+    // Guarded by lock
+    private int registered;
+    private int pending;
+    private long wakeups;
+    private long uselessWakeups;
+
+    public WaiterRegistry(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Waits until the state is at least {@code threshold}.
+     *
+     * @param timeoutNanos maximum time to wait, or a negative value to wait forever
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitAtLeast(long threshold, LongSupplier state, long timeoutNanos) throws InterruptedException {
+        return await(new Waiter(Kind.AT_LEAST, threshold, null), state, timeoutNanos);
+    }
+
+    /**
+     * Waits until the state is at most {@code threshold}.
+     *
+     * @param timeoutNanos maximum time to wait, or a negative value to wait forever
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitAtMost(long threshold, LongSupplier state, long timeoutNanos) throws InterruptedException {
+        return await(new Waiter(Kind.AT_MOST, threshold, null), state, timeoutNanos);
+    }
+
+    /**
+     * Waits until {@code predicate} holds for the state. Predicate waiters are
+     * checked on every state change.
+     *
+     * @param timeoutNanos maximum time to wait, or a negative value to wait forever
+     * @return false if the timeout elapsed first
+     */
+    public boolean await(LongPredicate predicate, LongSupplier state, long timeoutNanos) throws InterruptedException {
+        return await(new Waiter(Kind.PREDICATE, 0L, predicate), state, timeoutNanos);
+    }
+
+    /**
+     * Reports a new state and wakes up to {@code maxToWake} waiters whose
+     * condition now holds, minus any that were already woken and have not run
+     * yet. Woken waiters are removed from the index, so they are never woken twice.
+     * A woken waiter that finds its condition false again passes its wake-up on,
+     * so subtracting it here never leaves a satisfied waiter parked.
+     *
+     * @return the number of threads woken
+     */
+    public int stateChanged(long value, int maxToWake) {
+        int budget = maxToWake - pending;
+        if (budget <= 0 || registered == 0) {
+            return 0;
+        }
+        int woken = wakeFrom(atLeast.headMap(value, true), budget);
+        woken += wakeFrom(atMost.tailMap(value, true), budget - woken);
+        for (Iterator<Waiter> it = predicates.iterator(); it.hasNext() && woken < budget; ) {
+            Waiter waiter = it.next();
+            if (waiter.predicate.test(value)) {
+                it.remove();
+                wake(waiter);
+                woken++;
+            }
+        }
+        return woken;
+    }
+
+    /**
+     * Wakes every registered waiter, for example when the owner is closed.
+     */
+    public void wakeAll() {
+        wakeFrom(atLeast, Integer.MAX_VALUE);
+        wakeFrom(atMost, Integer.MAX_VALUE);
+        for (Waiter waiter : predicates) {
+            wake(waiter);
+        }
+        predicates.clear();
+    }
+
+    /**
+     * Returns the number of threads currently registered and not yet woken.
+     */
+    public int getWaiterCount() {
+        return registered;
+    }
+
+    /**
+     * Returns the number of times a waiting thread has been woken.
+     */
+    public long getWakeups() {
+        return wakeups;
+    }
+
+    /**
+     * Returns the number of wake-ups after which the condition no longer held,
+     * because another thread changed the state first.
+     */
+    public long getUselessWakeups() {
+        return uselessWakeups;
+    }
+
+    private boolean await(Waiter waiter, LongSupplier state, long timeoutNanos) throws InterruptedException {
+        boolean timed = timeoutNanos >= 0L;
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!waiter.test(state.getAsLong())) {
+            if (timed && deadline - System.nanoTime() <= 0L) {
+                return false;
+            }
+            waiter.signalled = false;
+            register(waiter);
+            boolean interrupted;
+            lock.unlock();
+            try {
+                interrupted = parkUntilSignalled(waiter, timed, deadline);
+            } finally {
+                lock.lock();
+                if (waiter.signalled) {
+                    // The signaller already removed us from the index
+                    pending--;
+                    wakeups++;
+                } else {
+                    unregister(waiter);
+                }
+            }
+            if (interrupted) {
+                if (waiter.signalled) {
+                    // Do not swallow a wake-up meant to make progress: pass it on
+                    stateChanged(state.getAsLong(), pending + 1);
+                }
+                throw new InterruptedException();
+            }
+            if (waiter.signalled && !waiter.test(state.getAsLong())) {
+                uselessWakeups++;
+                // Our wake-up still counted against the budget of the change that
+                // caused it; pass it on to a waiter the current state satisfies
+                stateChanged(state.getAsLong(), pending + 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parks without holding the lock until signalled, the deadline passes or
+     * the thread is interrupted.
+     *
+     * @return true if the thread was interrupted
+     */
+    private boolean parkUntilSignalled(Waiter waiter, boolean timed, long deadline) {
+        while (!waiter.signalled) {
+            if (timed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(Waiter waiter) {
+        registered++;
+        switch (waiter.kind) {
+            case AT_LEAST:
+                atLeast.computeIfAbsent(waiter.threshold, k -> new ArrayList<>()).add(waiter);
+                break;
+            case AT_MOST:
+                atMost.computeIfAbsent(waiter.threshold, k -> new ArrayList<>()).add(waiter);
+                break;
+            default:
+                predicates.add(waiter);
+        }
+    }
+
+    private void unregister(Waiter waiter) {
+        registered--;
+        NavigableMap<Long, List<Waiter>> index = waiter.kind == Kind.AT_LEAST ? atLeast
+                : waiter.kind == Kind.AT_MOST ? atMost : null;
+        if (index == null) {
+            predicates.remove(waiter);
+            return;
+        }
+        List<Waiter> bucket = index.get(waiter.threshold);
+        if (bucket != null) {
+            bucket.remove(waiter);
+            if (bucket.isEmpty()) {
+                index.remove(waiter.threshold);
+            }
+        }
+    }
+
+    private int wakeFrom(Map<Long, List<Waiter>> satisfied, int budget) {
+        int woken = 0;
+        Iterator<List<Waiter>> buckets = satisfied.values().iterator();
+        while (woken < budget && buckets.hasNext()) {
+            List<Waiter> bucket = buckets.next();
+            while (woken < budget && !bucket.isEmpty()) {
+                wake(bucket.remove(bucket.size() - 1));
+                woken++;
+            }
+            if (bucket.isEmpty()) {
+                buckets.remove();
+            }
+        }
+        return woken;
+    }
+
+    private void wake(Waiter waiter) {
+        registered--;
+        pending++;
+        waiter.signalled = true;
+        LockSupport.unpark(waiter.thread);
+    }
+
+    private enum Kind {
+        AT_LEAST, AT_MOST, PREDICATE
+    }
+
+    private static final class Waiter {
+        final Kind kind;
+        final long threshold;
+        final LongPredicate predicate;
+        final Thread thread = Thread.currentThread();
+        // Written under the owner's lock, read by the parked thread without it
+        volatile boolean signalled;
+
+        Waiter(Kind kind, long threshold, LongPredicate predicate) {
+            this.kind = kind;
+            this.threshold = threshold;
+            this.predicate = predicate;
+        }
+
+        boolean test(long value) {
+            switch (kind) {
+                case AT_LEAST:
+                    return value >= threshold;
+                case AT_MOST:
+                    return value <= threshold;
+                default:
+                    return predicate.test(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.mhsh.notifyexample.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A consumer pool's buffer split into one small deque per consumer, instead of
+ * one queue that every consumer locks for every item.
+ *
+ * <p>The producer deals items round-robin into the consumers' deques, skipping
+ * full ones. A consumer takes from the head of its own deque, which normally
+ * only the producer touches as well. When its deque is empty it steals from the
+ * tail of the fullest other deque, so fast consumers take over the backlog of
+ * slow ones. Thieves only {@code tryLock()} a victim: a deque that is busy is
+ * skipped rather than waited for. Idle consumers and a producer facing full
+ * deques park on a {@link Signal}, which the other side only locks when
+ * somebody is actually waiting.
+ *
+ * <p>The pool counts steals and contended lock acquisitions (a lock that was
+ * already held when taken) so the drop in contention can be measured.
+ */
+public class WorkStealingBuffer<E> {
+    private final LocalDeque<E>[] deques;
+    private final Signal notEmpty = new Signal();
+    private final Signal notFull = new Signal();
+    private final BooleanSupplier anyItemOrClosed = this::anyItemOrClosed;
+    private final BooleanSupplier anyFreeSlot = this::anyFreeSlot;
+    private final AtomicLong steals = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+
+    // Producer-thread state
+    private int nextDeque;
+
+    private volatile boolean closed;
+
+    /**
+     * @param consumers number of consumers, each identified by an index from 0
+     * @param capacityPerConsumer size of each consumer's deque
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public WorkStealingBuffer(int consumers, int capacityPerConsumer) {
+        if (consumers < 1 || capacityPerConsumer < 1) {
+            throw new IllegalArgumentException("Consumers and capacity must be positive");
+        }
+        this.deques = new LocalDeque[consumers];
+        for (int i = 0; i < consumers; i++) {
+            deques[i] = new LocalDeque<>(capacityPerConsumer);
+        }
+    }
+
+    /**
+     * Adds an item to the next consumer's deque that has room, waiting if all
+     * are full. Only one producer thread may call this.
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+        while (true) {
+            for (int i = 0; i < deques.length; i++) {
+                int index = nextDeque;
+                nextDeque = (nextDeque + 1) % deques.length;
+                if (deques[index].offerLast(e, contended)) {
+                    notEmpty.signal();
+                    return;
+                }
+            }
+            notFull.await(anyFreeSlot, -1L);
+        }
+    }
+
+    /**
+     * Takes the next item for a consumer: from its own deque if possible,
+     * otherwise stolen from another one, waiting if the pool is empty.
+     *
+     * @return the item, or null once the buffer is closed and empty
+     */
+    public E take(int consumer) throws InterruptedException {
+        LocalDeque<E> own = deques[consumer];
+        while (true) {
+            E e = own.pollFirst(contended);
+            if (e == null) {
+                e = steal(consumer);
+            }
+            if (e != null) {
+                notFull.signal();
+                return e;
+            }
+            if (closed && !anyItem()) {
+                return null;
+            }
+            notEmpty.await(anyItemOrClosed, -1L);
+        }
+    }
+
+    /**
+     * Marks the end of the stream: once the deques are empty, take() returns null.
+     */
+    public void close() {
+        closed = true;
+        notEmpty.signalAll();
+    }
+
+    /**
+     * Returns how many items consumers have taken from another consumer's deque.
+     */
+    public long getSteals() {
+        return steals.get();
+    }
+
+    /**
+     * Returns how many times the producer or an owner found a deque's lock
+     * already held. Failed steal attempts are not counted: thieves never wait.
+     */
+    public long getContendedAcquisitions() {
+        return contended.get();
+    }
+
+    private E steal(int thief) {
+        // Try the fullest victim first; it has the most work to give away
+        int victim = -1;
+        int most = 0;
+        for (int i = 0; i < deques.length; i++) {
+            int size = deques[i].size;
+            if (i != thief && size > most) {
+                most = size;
+                victim = i;
+            }
+        }
+        if (victim < 0) {
+            return null;
+        }
+        E e = deques[victim].tryPollLast();
+        if (e != null) {
+            steals.incrementAndGet();
+        }
+        return e;
+    }
+
+    private boolean anyItem() {
+        for (LocalDeque<E> deque : deques) {
+            if (deque.size > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anyItemOrClosed() {
+        return closed || anyItem();
+    }
+
+    private boolean anyFreeSlot() {
+        for (LocalDeque<E> deque : deques) {
+            if (deque.size < deque.items.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A bounded array deque with its own lock. The owner takes from the head,
+     * thieves from the tail.
+     */
+    private static final class LocalDeque<E> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Object[] items;
+        private int head;
+        // Written under the lock, read without it to pick victims and check for work
+        private volatile int size;
+
+        LocalDeque(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        boolean offerLast(E e, AtomicLong contended) {
+            lock(contended);
+            try {
+                if (size == items.length) {
+                    return false;
+                }
+                items[(head + size) % items.length] = e;
+                size++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        E pollFirst(AtomicLong contended) {
+            if (size == 0) {
+                return null;
+            }
+            lock(contended);
+            try {
+                if (size == 0) {
+                    return null;
+                }
+                @SuppressWarnings("unchecked")
+                E e = (E) items[head];
+                items[head] = null;
+                head = (head + 1) % items.length;
+                size--;
+                return e;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        E tryPollLast() {
+            if (!lock.tryLock()) {
+                return null;
+            }
+            try {
+                if (size == 0) {
+                    return null;
+                }
+                int tail = (head + size - 1) % items.length;
+                @SuppressWarnings("unchecked")
+                E e = (E) items[tail];
+                items[tail] = null;
+                size--;
+                return e;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void lock(AtomicLong contended) {
+            if (!lock.tryLock()) {
+                contended.incrementAndGet();
+                lock.lock();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.mhsh.notifyexample.loadgen;
+
+import io.github.mhsh.notifyexample.metrics.HistogramSnapshot;
+
+/**
+ * The outcome of one fixed-rate run: the rate that was offered, the rate the
+ * consumers actually sustained, and the latency of every item, both measured
+ * from its intended send time and, for comparison, from the time it was
+ * actually sent.
+ */
+public final class LoadPoint {
+    private final double offeredRate;
+    private final double achievedRate;
+    private final HistogramSnapshot latency;
+    private final HistogramSnapshot uncorrectedLatency;
+    private final long maxSendLagNanos;
+
+    LoadPoint(double offeredRate, double achievedRate, HistogramSnapshot latency,
+              HistogramSnapshot uncorrectedLatency, long maxSendLagNanos) {
+        this.offeredRate = offeredRate;
+        this.achievedRate = achievedRate;
+        this.latency = latency;
+        this.uncorrectedLatency = uncorrectedLatency;
+        this.maxSendLagNanos = maxSendLagNanos;
+    }
+
+    /**
+     * Items per second the schedule asked for.
+     */
+    public double getOfferedRate() {
+        return offeredRate;
+    }
+
+    /**
+     * Items per second actually completed, from the first intended send time
+     * to the last completion.
+     */
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    /**
+     * Nanoseconds from each item's intended send time until a consumer had
+     * finished it. This includes the time an item could not be sent because
+     * the buffer was full, so it is free of coordinated omission.
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * Nanoseconds from the moment each item was actually put until it was
+     * finished, which is what a closed-model producer measures. It leaves out
+     * the time items waited to get into a full buffer.
+     */
+    public HistogramSnapshot getUncorrectedLatency() {
+        return uncorrectedLatency;
+    }
+
+    /**
+     * The longest an item was sent after its intended time, because the
+     * producer was blocked on a full buffer or could not keep up itself.
+     */
+    public long getMaxSendLagNanos() {
+        return maxSendLagNanos;
+    }
+
+    /**
+     * True if the consumers fell clearly behind the offered rate.
+     */
+    public boolean isSaturated() {
+        return achievedRate < offeredRate * OpenLoadGenerator.SATURATION_RATIO;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("offered %,8.0f/s, achieved %,8.0f/s, latency p50 %,9d us, p99 %,9d us, "
+                        + "p99.9 %,9d us, max %,9d us (uncorrected p99 %,7d us)%s",
+                offeredRate, achievedRate, latency.getValueAtPercentile(50) / 1_000,
+                latency.getValueAtPercentile(99) / 1_000, latency.getValueAtPercentile(99.9) / 1_000,
+                latency.getMax() / 1_000, uncorrectedLatency.getValueAtPercentile(99) / 1_000,
+                isSaturated() ? "  SATURATED" : "");
+    }
+}
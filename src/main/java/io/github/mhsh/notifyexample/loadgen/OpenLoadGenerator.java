@@ -0,0 +1,189 @@
+package io.github.mhsh.notifyexample.loadgen;
+
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.metrics.LogLinearHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * An open-model load generator for the buffers: the producer sends items on a
+ * fixed-rate schedule, whether or not the consumers keep up, instead of
+ * sleeping between items as the examples do.
+ *
+ * <p>A producer that sleeps a random time after each item is a closed model:
+ * when the buffer fills up it blocks, sends less, and the queueing delay it
+ * caused never shows up in the measurements. Here item {@code i} has an
+ * intended send time of {@code start + i / rate}. Its latency is counted from
+ * that time until a consumer has finished it, even if the producer could only
+ * put it later. This is the correction for coordinated omission. The
+ * uncorrected latency, from the actual put, is recorded next to it for
+ * comparison.
+ *
+ * <p>Every consumer spends a fixed service time per item, so a run has a
+ * known capacity. {@link #sweep} doubles the rate until the consumers can no
+ * longer keep up, which gives the latency-versus-throughput curve of a buffer.
+ */
+public class OpenLoadGenerator {
+    /** Below this fraction of the offered rate a run counts as saturated. */
+    static final double SATURATION_RATIO = 0.9;
+    // Closer than this to the next send time the producer yields instead of parking
+    private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+    private static final int MIN_ITEMS = 100;
+
+    private final int consumers;
+    private final long serviceNanos;
+    private final long durationNanos;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * @param consumers      number of consumer threads
+     * @param serviceNanos   busy work per item in each consumer
+     * @param durationMillis how long the schedule of one rate lasts
+     * @param threadFactory  creates the producer and consumer threads
+     */
+    public OpenLoadGenerator(int consumers, long serviceNanos, long durationMillis, ThreadFactory threadFactory) {
+        if (consumers < 1 || serviceNanos < 0L || durationMillis < 1L) {
+            throw new IllegalArgumentException("Invalid load: consumers=" + consumers
+                    + ", serviceNanos=" + serviceNanos + ", durationMillis=" + durationMillis);
+        }
+        this.consumers = consumers;
+        this.serviceNanos = serviceNanos;
+        this.durationNanos = durationMillis * 1_000_000L;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Items per second the consumers can finish at most, ignoring hand-off cost.
+     */
+    public double getCapacity() {
+        return serviceNanos == 0L ? Double.POSITIVE_INFINITY : consumers * 1e9 / serviceNanos;
+    }
+
+    /**
+     * Runs the rate {@code startRate}, then twice that, and so on, on a fresh
+     * buffer each time. Stops after the first saturated run or once
+     * {@code maxRate} has been run.
+     */
+    public List<LoadPoint> sweep(Supplier<? extends BoundedBuffer<Request>> buffers, double startRate, double maxRate)
+            throws InterruptedException {
+        List<LoadPoint> points = new ArrayList<>();
+        for (double rate = startRate; rate <= maxRate; rate *= 2) {
+            LoadPoint point = run(buffers.get(), rate);
+            points.add(point);
+            if (point.isSaturated()) {
+                break;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Sends items through {@code buffer} at {@code rate} per second for the
+     * configured duration and waits until every item has been finished.
+     */
+    public LoadPoint run(BoundedBuffer<Request> buffer, double rate) throws InterruptedException {
+        int items = (int) Math.max(MIN_ITEMS, rate * durationNanos / 1e9);
+        double intervalNanos = 1e9 / rate;
+        LogLinearHistogram latency = new LogLinearHistogram();
+        LogLinearHistogram uncorrected = new LogLinearHistogram();
+        long[] lastDone = new long[consumers];
+        long[] maxSendLag = new long[1];
+        long start = System.nanoTime() + 1_000_000L; // Leave a moment to start the consumers
+
+        Thread[] consumerThreads = new Thread[consumers];
+        for (int c = 0; c < consumers; c++) {
+            final int consumerId = c;
+            consumerThreads[c] = threadFactory.newThread(() -> {
+                try {
+                    Request request;
+                    while ((request = buffer.take()) != Request.END_OF_STREAM) {
+                        serve();
+                        long done = System.nanoTime();
+                        latency.record(done - request.intendedNanos);
+                        uncorrected.record(done - request.sentNanos);
+                        lastDone[consumerId] = done;
+                    }
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            });
+            consumerThreads[c].start();
+        }
+
+        Thread producer = threadFactory.newThread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    long intended = start + (long) (i * intervalNanos);
+                    awaitTime(intended);
+                    Request request = new Request(intended);
+                    request.sentNanos = System.nanoTime();
+                    buffer.put(request);
+                    maxSendLag[0] = Math.max(maxSendLag[0], request.sentNanos - intended);
+                }
+                for (int c = 0; c < consumers; c++) {
+                    buffer.put(Request.END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        producer.start();
+
+        producer.join();
+        long end = start;
+        for (int c = 0; c < consumers; c++) {
+            consumerThreads[c].join();
+            end = Math.max(end, lastDone[c]);
+        }
+        // The joins make the threads' writes visible here
+        double achieved = items * 1e9 / Math.max(1L, end - start);
+        return new LoadPoint(rate, achieved, latency.snapshot(), uncorrected.snapshot(), maxSendLag[0]);
+    }
+
+    // Busy work standing in for processing an item
+    private void serve() {
+        long until = System.nanoTime() + serviceNanos;
+        while (System.nanoTime() - until < 0L) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitTime(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0L) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                // Yield rather than spin, so a consumer sharing the core still runs
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * One item of the schedule, carrying the time it should have been sent
+     * and the time it actually was.
+     */
+    public static final class Request {
+        static final Request END_OF_STREAM = new Request(0L);
+
+        private final long intendedNanos;
+        private long sentNanos;
+
+        Request(long intendedNanos) {
+            this.intendedNanos = intendedNanos;
+        }
+
+        public long getIntendedNanos() {
+            return intendedNanos;
+        }
+
+        public long getSentNanos() {
+            return sentNanos;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.mhsh.notifyexample.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A histogram of non-negative {@code long} values (nanoseconds, queue depths)
+ * cheap enough to leave switched on.
+ *
+ * <p>Buckets are log-linear: every power of two is split into
+ * {@value #SUB_BUCKETS} equal sub-buckets, so a recorded value is off by at
+ * most about 6% while the whole {@code long} range fits in
+ * {@value #BUCKET_COUNT} counters. Each recording thread gets its own bucket
+ * array the first time it records, and from then on {@link #record} is an
+ * index computation plus a few single-writer stores: no locks, no CAS and no
+ * allocation. {@link #snapshot()} merges the per-thread arrays on read.
+ *
+ * <p>When a recording thread has ended, its counts are folded into one shared
+ * total and its array is dropped. That happens the next time a thread
+ * registers or a snapshot is taken. Thread churn, or one virtual thread per
+ * task, therefore does not grow the histogram beyond the threads still alive.
+ */
+public class LogLinearHistogram {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle SUM;
+    private static final VarHandle MAX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SUM = lookup.findVarHandle(Recorder.class, "sum", long.class);
+            MAX = lookup.findVarHandle(Recorder.class, "max", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    // Counts of threads that have ended; guarded by itself
+    private final Recorder retired = new Recorder(null);
+    private final ThreadLocal<Recorder> local = ThreadLocal.withInitial(this::register);
+
+    /**
+     * Records one value; negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        Recorder r = local.get();
+        int i = bucketIndex(v);
+        // Only the owning thread writes these, so plain reads plus opaque writes
+        // are enough for a concurrent snapshot to see whole values
+        COUNTS.setOpaque(r.counts, i, r.counts[i] + 1);
+        SUM.setOpaque(r, r.sum + v);
+        if (v > r.max) {
+            MAX.setOpaque(r, v);
+        }
+    }
+
+    /**
+     * Merges the per-thread counts recorded so far. Recording is not paused, so
+     * a snapshot taken while threads record is a close, not exact, cut.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] merged = new long[BUCKET_COUNT];
+        long sum;
+        long max;
+        // Held while merging so that no recorder moves into retired halfway through
+        synchronized (retired) {
+            retireEndedThreads();
+            System.arraycopy(retired.counts, 0, merged, 0, BUCKET_COUNT);
+            sum = retired.sum;
+            max = retired.max;
+            for (Recorder r : recorders) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    merged[i] += (long) COUNTS.getOpaque(r.counts, i);
+                }
+                sum += (long) SUM.getOpaque(r);
+                max = Math.max(max, (long) MAX.getOpaque(r));
+            }
+        }
+        return new HistogramSnapshot(merged, sum, max);
+    }
+
+    static int bucketIndex(long value) {
+        // Values below SUB_BUCKETS get a bucket each; above that, shift away all
+        // but the top SUB_BUCKET_BITS + 1 bits
+        int shift = Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    static long lowestValueAt(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    static long highestValueAt(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    private Recorder register() {
+        synchronized (retired) {
+            retireEndedThreads();
+        }
+        Recorder r = new Recorder(Thread.currentThread());
+        recorders.add(r);
+        return r;
+    }
+
+    // Caller holds the retired lock
+    private void retireEndedThreads() {
+        for (Recorder r : recorders) {
+            // isAlive() returning false makes all of the thread's writes visible
+            if (!r.owner.isAlive()) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    retired.counts[i] += r.counts[i];
+                }
+                retired.sum += r.sum;
+                retired.max = Math.max(retired.max, r.max);
+                recorders.remove(r);
+            }
+        }
+    }
+
+    private static final class Recorder {
+        final Thread owner;
+        final long[] counts = new long[BUCKET_COUNT];
+        long sum;
+        long max;
+
+        Recorder(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
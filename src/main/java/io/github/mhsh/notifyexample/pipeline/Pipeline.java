@@ -0,0 +1,300 @@
+package io.github.mhsh.notifyexample.pipeline;
+
+import io.github.mhsh.notifyexample.waitstrategy.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A multi-stage pipeline in which every stage works on the same pre-allocated
+ * ring instead of handing items from queue to queue.
+ *
+ * <p>The producer claims a ring position, fills in the entry already stored
+ * there and publishes the position. Every stage worker keeps its own
+ * {@link Sequence}, the last position it is done with, and waits on a barrier:
+ * the minimum of the sequences it depends on (the producer's cursor for a
+ * first stage, the upstream workers' sequences otherwise). That gives:
+ * <ul>
+ *   <li>chains: {@code parse -> enrich -> persist};</li>
+ *   <li>diamonds: a stage added with several upstream stages waits for all of
+ *       them, and the upstream stages run side by side;</li>
+ *   <li>parallel workers within a stage: worker {@code k} of {@code n} handles
+ *       the positions where {@code sequence % n == k}, and the stage counts as
+ *       done with a position once all of its workers are.</li>
+ * </ul>
+ * The producer does not overwrite a position until every final stage has
+ * finished with it. Moving an item through all stages copies nothing and
+ * allocates nothing; workers process whatever has become available in one
+ * batch and only then publish their sequence.
+ *
+ * <p>There is one producer thread. Threads wait through the given
+ * {@link WaitStrategy}, which is signalled after every publish and every
+ * batch. With a spinning or yielding strategy the hand-offs take no lock at
+ * all. With a blocking strategy a signal takes the strategy's lock and wakes
+ * every sleeping worker, but only while some thread is actually asleep.
+ *
+ * <p>A handler that throws has its item counted as a failure, and the item
+ * still moves on. A handler that is interrupted ends its worker instead.
+ */
+public class Pipeline<E> {
+    private final Object[] entries;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence();
+    private final List<Stage> stages = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    // Producer-thread state
+    private long nextToClaim;
+    private long wrapPoint;
+    private Sequence[] gating;
+    private final BooleanSupplier slotFree = () -> Sequence.minimum(gating) >= wrapPoint;
+
+    private volatile boolean halted;
+
+    /**
+     * @param requestedCapacity minimum ring size; rounded up to a power of two
+     * @param factory creates the ring's entries, once, up front
+     */
+    public Pipeline(int requestedCapacity, Supplier<E> factory, WaitStrategy waitStrategy) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + requestedCapacity);
+        }
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+        }
+    }
+
+    /**
+     * Adds a stage that processes every item after all {@code upstream} stages
+     * have, or straight after the producer if there are none.
+     *
+     * @param parallelism number of worker threads sharing the stage's items
+     */
+    @SafeVarargs
+    public final Stage addStage(String name, int parallelism, StageHandler<E> handler, Stage... upstream) {
+        if (!threads.isEmpty()) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        List<Sequence> barrier = new ArrayList<>();
+        if (upstream.length == 0) {
+            barrier.add(cursor);
+        }
+        for (Stage stage : upstream) {
+            if (stage.pipeline() != this) {
+                throw new IllegalArgumentException("Stage " + stage.name + " belongs to another pipeline");
+            }
+            for (Worker worker : stage.workers) {
+                barrier.add(worker.sequence);
+            }
+        }
+        Stage stage = new Stage(name, parallelism, handler, barrier.toArray(new Sequence[0]));
+        for (Stage up : upstream) {
+            up.downstreamCount++;
+        }
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Starts one thread per stage worker.
+     */
+    public void start(ThreadFactory threadFactory) {
+        if (!threads.isEmpty()) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        List<Sequence> last = new ArrayList<>();
+        for (Stage stage : stages) {
+            if (stage.downstreamCount == 0) {
+                for (Worker worker : stage.workers) {
+                    last.add(worker.sequence);
+                }
+            }
+        }
+        gating = last.isEmpty() ? new Sequence[] {cursor} : last.toArray(new Sequence[0]);
+        for (Stage stage : stages) {
+            for (Worker worker : stage.workers) {
+                Thread thread = threadFactory.newThread(worker);
+                threads.add(thread);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Claims the next ring position, waiting until the final stages have
+     * finished with the item previously stored there. Producer thread only.
+     */
+    public long claim() throws InterruptedException {
+        long sequence = nextToClaim++;
+        wrapPoint = sequence - entries.length;
+        waitStrategy.await(slotFree);
+        return sequence;
+    }
+
+    /**
+     * Returns the pre-allocated entry for a claimed or processed position.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a claimed position, and everything written to its entry, visible
+     * to the first stages.
+     */
+    public void publish(long sequence) {
+        cursor.set(sequence);
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * Waits until every stage has processed everything published, then stops
+     * and joins the worker threads.
+     */
+    public void drainAndStop() throws InterruptedException {
+        long published = cursor.get();
+        waitStrategy.await(() -> Sequence.minimum(gating) >= published);
+        halted = true;
+        waitStrategy.signalAll();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * One stage of the pipeline: a handler and the workers that run it.
+     */
+    public final class Stage {
+        private final String name;
+        private final List<Worker> workers = new ArrayList<>();
+        private int downstreamCount;
+
+        private Stage(String name, int parallelism, StageHandler<E> handler, Sequence[] barrier) {
+            this.name = name;
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(new Worker(handler, barrier, i, parallelism));
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the last position every worker of this stage is done with.
+         */
+        public long getSequence() {
+            long min = Long.MAX_VALUE;
+            for (Worker worker : workers) {
+                min = Math.min(min, worker.sequence.get());
+            }
+            return min;
+        }
+
+        /**
+         * Returns how many items each worker has handled, indexed by worker.
+         */
+        public long[] getItemsPerWorker() {
+            long[] counts = new long[workers.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = workers.get(i).handled;
+            }
+            return counts;
+        }
+
+        /**
+         * Returns how many items the handler failed on; those items still move on.
+         */
+        public long getFailures() {
+            long failures = 0L;
+            for (Worker worker : workers) {
+                failures += worker.failures;
+            }
+            return failures;
+        }
+
+        private Pipeline<E> pipeline() {
+            return Pipeline.this;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Sequence sequence = new Sequence();
+        private final StageHandler<E> handler;
+        private final Sequence[] barrier;
+        private final int ordinal;
+        private final int parallelism;
+        private final BooleanSupplier ready;
+
+        // Only the worker thread writes these; the stage getters read them racily
+        private volatile long handled;
+        private volatile long failures;
+        private long next;
+
+        Worker(StageHandler<E> handler, Sequence[] barrier, int ordinal, int parallelism) {
+            this.handler = handler;
+            this.barrier = barrier;
+            this.ordinal = ordinal;
+            this.parallelism = parallelism;
+            this.ready = () -> halted || Sequence.minimum(this.barrier) >= this.next;
+        }
+
+        @Override
+        public void run() {
+            next = sequence.get() + 1;
+            try {
+                while (true) {
+                    waitStrategy.await(ready);
+                    long available = Sequence.minimum(barrier);
+                    if (available < next) {
+                        // Only reached when halted: everything published has been processed
+                        return;
+                    }
+                    // Take the whole batch that became available in one go
+                    for (long s = next; s <= available; s++) {
+                        if (s % parallelism == ordinal) {
+                            process(s);
+                        }
+                    }
+                    sequence.set(available);
+                    waitStrategy.signalAll();
+                    next = available + 1;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(long s) throws InterruptedException {
+            try {
+                handler.onItem(get(s), s);
+                handled++;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failures++;
+                e.printStackTrace();
+            }
+        }
+    }
+}
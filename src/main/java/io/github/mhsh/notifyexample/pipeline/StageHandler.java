@@ -0,0 +1,13 @@
+package io.github.mhsh.notifyexample.pipeline;
+
+/**
+ * The work one pipeline stage does on an item. The item is the ring's
+ * pre-allocated entry: a handler updates it in place, and later stages see
+ * those updates. Stages that run side by side (both branches of a diamond)
+ * must write different fields.
+ */
+@FunctionalInterface
+public interface StageHandler<E> {
+
+    void onItem(E item, long sequence) throws Exception;
+}
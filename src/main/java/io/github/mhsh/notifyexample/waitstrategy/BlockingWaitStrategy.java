@@ -0,0 +1,55 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sleeps on a condition variable until another thread calls
+ * {@link #signalAll()}. No CPU at all while idle, at the price of an OS-level
+ * wake-up on every hand-off to a sleeping thread. {@link #signalAll()} only
+ * takes the lock while some thread is actually asleep; otherwise it costs a
+ * fence and one volatile read.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile int waiters;
+
+    @Override
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        if (condition.getAsBoolean()) {
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            waiters++;
+            // Pairs with the fence in signalAll(): either we see the new state or it sees us waiting
+            VarHandle.fullFence();
+            try {
+                while (!condition.getAsBoolean()) {
+                    changed.await();
+                }
+            } finally {
+                waiters--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAll() {
+        VarHandle.fullFence();
+        if (waiters == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
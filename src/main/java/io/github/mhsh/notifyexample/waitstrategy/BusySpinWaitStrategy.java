@@ -0,0 +1,21 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Re-checks the condition in a tight loop. Lowest latency, but keeps a whole
+ * core busy for as long as the thread waits; only sensible when waiting
+ * threads have dedicated cores.
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parks for a fixed slice with {@code LockSupport.parkNanos} between checks.
+ * Near-zero CPU while idle and no signalling needed, but a hand-off can wait
+ * up to one slice (plus timer slack) before it is noticed.
+ */
+public class ParkingWaitStrategy implements WaitStrategy {
+    private final long parkNanos;
+
+    public ParkingWaitStrategy(long parkNanos) {
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            LockSupport.parkNanos(this, parkNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for a short time, then yields for a while longer, and only then falls
+ * back to a sleeping strategy. Short gaps between items are caught by the spin
+ * at spin latency, while long idle periods cost no CPU.
+ */
+public class PhasedBackoffWaitStrategy implements WaitStrategy {
+    private final long spinNanos;
+    private final long yieldNanos;
+    private final WaitStrategy fallback;
+
+    /**
+     * @param spinNanos  how long to spin before yielding
+     * @param yieldNanos how long to yield, after spinning, before falling back
+     * @param fallback   the strategy used once both phases have passed
+     */
+    public PhasedBackoffWaitStrategy(long spinNanos, long yieldNanos, WaitStrategy fallback) {
+        this.spinNanos = spinNanos;
+        this.yieldNanos = yieldNanos;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        long start = System.nanoTime();
+        int checks = 0;
+        boolean yielding = false;
+        while (!condition.getAsBoolean()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            // Reading the clock is not free, so only do it every few checks
+            if (++checks % 64 == 0) {
+                long waited = System.nanoTime() - start;
+                if (waited > spinNanos + yieldNanos) {
+                    fallback.await(condition);
+                    return;
+                }
+                yielding = waited > spinNanos;
+            }
+            if (yielding) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Override
+    public void signalAll() {
+        fallback.signalAll();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a thread waits for a condition that another thread will make true, such
+ * as "the buffer is not empty". Strategies trade CPU use against wake-up
+ * latency: spinning reacts fastest but burns a core while idle, blocking
+ * costs nothing while idle but adds an OS wake-up to every hand-off.
+ *
+ * <p>The thread that changes the state must call {@link #signalAll()}
+ * afterwards; only strategies that actually put threads to sleep need it.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Returns once {@code condition} is true.
+     */
+    void await(BooleanSupplier condition) throws InterruptedException;
+
+    /**
+     * Called after a state change that may satisfy a waiting thread.
+     */
+    default void signalAll() {
+    }
+}
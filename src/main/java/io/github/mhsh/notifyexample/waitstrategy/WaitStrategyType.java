@@ -0,0 +1,43 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The available wait strategies with their default settings, ordered from
+ * lowest latency to lowest CPU use.
+ */
+public enum WaitStrategyType {
+
+    /** Spin on the condition with {@code Thread.onSpinWait()}. */
+    BUSY_SPIN,
+
+    /** Spin briefly, then {@code Thread.yield()} between checks. */
+    YIELD,
+
+    /** Spin, then yield, then park, each for a bounded time. */
+    PHASED,
+
+    /** Sleep in short {@code LockSupport.parkNanos} slices between checks. */
+    PARK,
+
+    /** Sleep on a condition variable until signalled. */
+    BLOCKING;
+
+    public WaitStrategy create() {
+        switch (this) {
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case YIELD:
+                return new YieldingWaitStrategy(100);
+            case PHASED:
+                return new PhasedBackoffWaitStrategy(TimeUnit.MICROSECONDS.toNanos(10),
+                        TimeUnit.MICROSECONDS.toNanos(100), new ParkingWaitStrategy(TimeUnit.MICROSECONDS.toNanos(100)));
+            case PARK:
+                return new ParkingWaitStrategy(TimeUnit.MICROSECONDS.toNanos(100));
+            case BLOCKING:
+                return new BlockingWaitStrategy();
+            default:
+                throw new IllegalStateException("Unknown wait strategy: " + this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.mhsh.notifyexample.waitstrategy;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for a number of checks and then calls {@code Thread.yield()} between
+ * checks, letting other runnable threads use the core. Still shows as 100%
+ * CPU while idle, but behaves better than a pure spin when cores are shared.
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+    private final int spinTries;
+
+    public YieldingWaitStrategy(int spinTries) {
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        int counter = spinTries;
+        while (!condition.getAsBoolean()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+}
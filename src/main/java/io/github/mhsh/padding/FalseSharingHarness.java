@@ -0,0 +1,320 @@
+package io.github.mhsh.padding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.IntFunction;
+
+/**
+ * Runs one workload twice, on a packed and on a padded layout of the same
+ * fields, and reports how much slower the packed layout is. Every thread
+ * increments only its own slot, so any difference between the two runs is
+ * the cost of false sharing: threads invalidating each other's cache line
+ * without ever touching each other's data.
+ *
+ * <p>To check a structure of your own, wrap both layouts in {@link Slots}
+ * and call {@link #compare}. {@link #main} runs the layouts of the examples:
+ * <ul>
+ *   <li>per-thread counters in one {@code long[]}, like the per-consumer item
+ *       counts of {@code DeadlockExample}, against a {@link PaddedLongArray};</li>
+ *   <li>small counter objects allocated one after the other, like
+ *       {@code JoinSolutionExample.CounterHolder}, against {@link PaddedLong}s;</li>
+ *   <li>a producer field and a consumer field in one object, like
+ *       {@code producerDone} and {@code totalConsumed} in
+ *       {@code NotifyAllExample}, against two padded cells.</li>
+ * </ul>
+ *
+ * False sharing needs threads running at the same time on different cores; on
+ * a single core both layouts run at the same speed.
+ */
+public class FalseSharingHarness {
+
+    private static final int RUNS = 5;
+
+    /**
+     * The fields under test, one slot per thread.
+     */
+    public interface Slots {
+
+        /** Adds one to the slot; only the thread that owns the slot calls it. */
+        void increment(int slot);
+
+        long get(int slot);
+    }
+
+    /**
+     * The best of several runs of each layout.
+     */
+    public static final class Result {
+        private final String name;
+        private final int threads;
+        private final double packedNanosPerOp;
+        private final double paddedNanosPerOp;
+
+        Result(String name, int threads, double packedNanosPerOp, double paddedNanosPerOp) {
+            this.name = name;
+            this.threads = threads;
+            this.packedNanosPerOp = packedNanosPerOp;
+            this.paddedNanosPerOp = paddedNanosPerOp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public double getPackedNanosPerOp() {
+            return packedNanosPerOp;
+        }
+
+        public double getPaddedNanosPerOp() {
+            return paddedNanosPerOp;
+        }
+
+        /**
+         * Packed time divided by padded time: how many times slower false
+         * sharing makes the packed layout.
+         */
+        public double getSlowdown() {
+            return packedNanosPerOp / paddedNanosPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %2d threads: packed %6.2f ns/op, padded %6.2f ns/op, slowdown %5.2fx",
+                    name, threads, packedNanosPerOp, paddedNanosPerOp, getSlowdown());
+        }
+    }
+
+    public static void main(String[] args) {
+        long iterations = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = Math.max(2, Math.min(4, cores));
+
+        System.out.println("=== False sharing: packed vs padded layouts ===");
+        if (cores < 2) {
+            System.out.println("Only one CPU is available, so the threads never run at the same time "
+                    + "and no slowdown can show");
+        }
+        System.out.println(compare("per-thread counters", threads, iterations,
+                PackedLongs::new, PaddedLongs::new));
+        System.out.println(compare("counter holder objects", threads, iterations,
+                PackedHolders::new, PaddedHolders::new));
+        System.out.println(compare("producer/consumer fields", 2, iterations,
+                slots -> new PackedPair(), slots -> new PaddedPair()));
+    }
+
+    /**
+     * Runs {@code threads} threads, each incrementing its own slot
+     * {@code iterations} times, on both layouts. The layouts alternate over
+     * several runs and the fastest run of each is kept.
+     *
+     * @param packed creates the packed layout for the given number of slots
+     * @param padded creates the padded layout for the given number of slots
+     */
+    public static Result compare(String name, int threads, long iterations,
+                                 IntFunction<? extends Slots> packed, IntFunction<? extends Slots> padded) {
+        long bestPacked = Long.MAX_VALUE;
+        long bestPadded = Long.MAX_VALUE;
+        // The first round doubles as JIT warm-up for both layouts
+        for (int run = 0; run <= RUNS; run++) {
+            long packedNanos = runOnce(packed.apply(threads), threads, iterations);
+            long paddedNanos = runOnce(padded.apply(threads), threads, iterations);
+            if (run > 0) {
+                bestPacked = Math.min(bestPacked, packedNanos);
+                bestPadded = Math.min(bestPadded, paddedNanos);
+            }
+        }
+        double ops = (double) threads * iterations;
+        return new Result(name, threads, bestPacked / ops, bestPadded / ops);
+    }
+
+    private static long runOnce(Slots slots, int threads, long iterations) {
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (long i = 0; i < iterations; i++) {
+                        slots.increment(slot);
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long elapsed;
+        try {
+            start.await();
+            long begin = System.nanoTime();
+            done.await();
+            elapsed = System.nanoTime() - begin;
+        } catch (Exception e) {
+            throw new IllegalStateException("Harness run was interrupted", e);
+        }
+        for (int t = 0; t < threads; t++) {
+            if (slots.get(t) != iterations) {
+                throw new IllegalStateException("Slot " + t + " counted " + slots.get(t) + " of " + iterations);
+            }
+        }
+        return elapsed;
+    }
+
+    // Every store below is a release store of the owner's own slot, so the
+    // JIT cannot keep the count in a register and each increment reaches the cache
+
+    private static final class PackedLongs implements Slots {
+        private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+        private final long[] values;
+
+        PackedLongs(int slots) {
+            values = new long[slots];
+        }
+
+        @Override
+        public void increment(int slot) {
+            SLOT.setRelease(values, slot, (long) SLOT.get(values, slot) + 1L);
+        }
+
+        @Override
+        public long get(int slot) {
+            return (long) SLOT.getVolatile(values, slot);
+        }
+    }
+
+    private static final class PaddedLongs implements Slots {
+        private final PaddedLongArray values;
+
+        PaddedLongs(int slots) {
+            values = new PaddedLongArray(slots);
+        }
+
+        @Override
+        public void increment(int slot) {
+            values.setRelease(slot, values.getPlain(slot) + 1L);
+        }
+
+        @Override
+        public long get(int slot) {
+            return values.get(slot);
+        }
+    }
+
+    // A small object with one counter, as CounterHolder is: several fit on one line
+    private static final class Holder {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Holder.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long value;
+    }
+
+    private static final class PackedHolders implements Slots {
+        private final Holder[] holders;
+
+        PackedHolders(int slots) {
+            // Allocated back to back, so they end up next to each other on the heap
+            holders = new Holder[slots];
+            for (int i = 0; i < slots; i++) {
+                holders[i] = new Holder();
+            }
+        }
+
+        @Override
+        public void increment(int slot) {
+            Holder holder = holders[slot];
+            Holder.VALUE.setRelease(holder, (long) Holder.VALUE.get(holder) + 1L);
+        }
+
+        @Override
+        public long get(int slot) {
+            return (long) Holder.VALUE.getVolatile(holders[slot]);
+        }
+    }
+
+    private static final class PaddedHolders implements Slots {
+        private final PaddedLong[] holders;
+
+        PaddedHolders(int slots) {
+            holders = new PaddedLong[slots];
+            for (int i = 0; i < slots; i++) {
+                holders[i] = new PaddedLong();
+            }
+        }
+
+        @Override
+        public void increment(int slot) {
+            PaddedLong holder = holders[slot];
+            holder.setRelease(holder.getPlain() + 1L);
+        }
+
+        @Override
+        public long get(int slot) {
+            return holders[slot].get();
+        }
+    }
+
+    // Slot 0 is written by the producer and slot 1 by the consumer
+    private static final class PackedPair implements Slots {
+        private static final VarHandle PRODUCED;
+        private static final VarHandle CONSUMED;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                PRODUCED = lookup.findVarHandle(PackedPair.class, "produced", long.class);
+                CONSUMED = lookup.findVarHandle(PackedPair.class, "consumed", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long produced;
+        private long consumed;
+
+        @Override
+        public void increment(int slot) {
+            if (slot == 0) {
+                PRODUCED.setRelease(this, (long) PRODUCED.get(this) + 1L);
+            } else {
+                CONSUMED.setRelease(this, (long) CONSUMED.get(this) + 1L);
+            }
+        }
+
+        @Override
+        public long get(int slot) {
+            return slot == 0 ? (long) PRODUCED.getVolatile(this) : (long) CONSUMED.getVolatile(this);
+        }
+    }
+
+    private static final class PaddedPair implements Slots {
+        private final PaddedLong produced = new PaddedLong();
+        private final PaddedLong consumed = new PaddedLong();
+
+        @Override
+        public void increment(int slot) {
+            PaddedLong cell = slot == 0 ? produced : consumed;
+            cell.setRelease(cell.getPlain() + 1L);
+        }
+
+        @Override
+        public long get(int slot) {
+            return slot == 0 ? produced.get() : consumed.get();
+        }
+    }
+}
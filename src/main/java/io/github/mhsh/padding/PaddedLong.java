@@ -0,0 +1,95 @@
+package io.github.mhsh.padding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// HotSpot may reorder the fields of one class, but always lays out a
+// superclass's fields before a subclass's, so the padding goes in the hierarchy
+
+abstract class PaddedLongLeftPadding {
+    @SuppressWarnings("unused")
+    private long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class PaddedLongValue extends PaddedLongLeftPadding {
+    volatile long value;
+}
+
+abstract class PaddedLongRightPadding extends PaddedLongValue {
+    @SuppressWarnings("unused")
+    private long p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * A {@code long} on a cache line of its own, for a hot field that one thread
+ * writes while other threads read or write fields allocated next to it.
+ *
+ * <p>Padding declared inside one class, as in the counter {@code Cell} or
+ * {@code SpscQueue}, works on HotSpot because it lays out fields of the same
+ * size in declaration order; fields of other sizes are moved, e.g. an
+ * {@code int} declared between padded {@code long}s ends up after them. That is
+ * an implementation detail rather than a guarantee. Here each block of padding
+ * and the value live in separate classes of a hierarchy, and superclass fields
+ * are always laid out first, so the isolation does not depend on how one
+ * class's fields are ordered. That gives the same isolation as
+ * {@code @Contended} without {@code -XX:-RestrictContended}.
+ *
+ * <p>Besides the volatile and atomic accessors, {@link #getPlain()} and
+ * {@link #setPlain(long)} serve fields guarded by a lock, and
+ * {@link #setRelease(long)} a single writer publishing to readers.
+ */
+public final class PaddedLong extends PaddedLongRightPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedLongValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public PaddedLong() {
+    }
+
+    public PaddedLong(long initialValue) {
+        VALUE.set(this, initialValue);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void set(long newValue) {
+        value = newValue;
+    }
+
+    public long getPlain() {
+        return (long) VALUE.get(this);
+    }
+
+    public void setPlain(long newValue) {
+        VALUE.set(this, newValue);
+    }
+
+    public void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    public boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    public long getAndAdd(long delta) {
+        return (long) VALUE.getAndAdd(this, delta);
+    }
+
+    public long incrementAndGet() {
+        return (long) VALUE.getAndAdd(this, 1L) + 1L;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
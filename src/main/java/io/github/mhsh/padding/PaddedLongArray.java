@@ -0,0 +1,85 @@
+package io.github.mhsh.padding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-length array of {@code long} slots, each on its own cache line, for
+ * per-thread counters that every owner updates and that are only summed or
+ * sampled by others. A plain {@code long[]} or {@code AtomicLongArray} packs
+ * eight slots into one 64-byte line, so every increment invalidates the line
+ * for the other seven owners.
+ *
+ * <p>Array elements cannot be padded through a class hierarchy, so the slots
+ * are spread {@value #STRIDE} longs (128 bytes) apart in one backing array,
+ * with a stride of padding before the first. 128 bytes also covers CPUs whose
+ * prefetcher pulls cache lines in adjacent pairs.
+ */
+public final class PaddedLongArray {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int STRIDE = 16;
+
+    private final long[] slots;
+    private final int length;
+
+    public PaddedLongArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        }
+        this.length = length;
+        this.slots = new long[(length + 1) * STRIDE];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long get(int i) {
+        return (long) SLOT.getVolatile(slots, offset(i));
+    }
+
+    /**
+     * Ordinary read, for the thread that owns the slot and is its only writer.
+     */
+    public long getPlain(int i) {
+        return (long) SLOT.get(slots, offset(i));
+    }
+
+    public void set(int i, long newValue) {
+        SLOT.setVolatile(slots, offset(i), newValue);
+    }
+
+    /**
+     * Store for a slot that only one thread writes; readers that sample it
+     * later see the value without the writer paying for a full fence.
+     */
+    public void setRelease(int i, long newValue) {
+        SLOT.setRelease(slots, offset(i), newValue);
+    }
+
+    public long incrementAndGet(int i) {
+        return (long) SLOT.getAndAdd(slots, offset(i), 1L) + 1L;
+    }
+
+    public long getAndAdd(int i, long delta) {
+        return (long) SLOT.getAndAdd(slots, offset(i), delta);
+    }
+
+    /**
+     * Returns the sum of all slots; not an atomic snapshot while they change.
+     */
+    public long sum() {
+        long sum = 0L;
+        for (int i = 0; i < length; i++) {
+            sum += get(i);
+        }
+        return sum;
+    }
+
+    private int offset(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+        }
+        return (i + 1) * STRIDE;
+    }
+}
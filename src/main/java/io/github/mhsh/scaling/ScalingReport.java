@@ -0,0 +1,71 @@
+package io.github.mhsh.scaling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes scaling results as CSV, one row per scenario, thread count and item
+ * count, or as a JSON array of the same records with every run time included.
+ */
+public final class ScalingReport {
+
+    private static final String CSV_HEADER =
+            "scenario,threads,items,runs,median_ns,min_ns,max_ns,items_per_sec,speedup,efficiency";
+
+    private ScalingReport() {
+    }
+
+    /**
+     * Writes JSON if {@code file} ends in {@code .json}, CSV otherwise.
+     */
+    public static void write(List<ScalingResult> results, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                writeJson(results, out);
+            } else {
+                writeCsv(results, out);
+            }
+        }
+    }
+
+    public static void writeCsv(List<ScalingResult> results, Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+        for (ScalingResult result : results) {
+            out.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.1f,%s,%s%n",
+                    result.getScenario(), result.getThreads(), result.getItems(), result.getRunNanos().length,
+                    result.getMedianNanos(), result.getMinNanos(), result.getMaxNanos(), result.getThroughput(),
+                    ratio(result.getSpeedup(), ""), ratio(result.getEfficiency(), "")));
+        }
+    }
+
+    public static void writeJson(List<ScalingResult> results, Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            ScalingResult result = results.get(i);
+            StringBuilder runs = new StringBuilder();
+            for (long nanos : result.getRunNanos()) {
+                if (runs.length() > 0) {
+                    runs.append(", ");
+                }
+                runs.append(nanos);
+            }
+            out.write(String.format(Locale.ROOT,
+                    "  {\"scenario\": \"%s\", \"threads\": %d, \"items\": %d, \"runNanos\": [%s], "
+                            + "\"medianNanos\": %d, \"itemsPerSecond\": %.1f, \"speedup\": %s, \"efficiency\": %s}%s%n",
+                    result.getScenario(), result.getThreads(), result.getItems(), runs, result.getMedianNanos(),
+                    result.getThroughput(), ratio(result.getSpeedup(), "null"), ratio(result.getEfficiency(), "null"),
+                    i < results.size() - 1 ? "," : ""));
+        }
+        out.write("]\n");
+    }
+
+    private static String ratio(double value, String missing) {
+        return Double.isNaN(value) ? missing : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.mhsh.scaling;
+
+import java.util.Arrays;
+
+/**
+ * The measured runs of one scenario at one thread count and item count.
+ */
+public final class ScalingResult {
+    private final String scenario;
+    private final int threads;
+    private final int items;
+    private final long[] runNanos;
+    private final long medianNanos;
+    private double speedup = Double.NaN;
+
+    ScalingResult(String scenario, int threads, int items, long[] runNanos) {
+        this.scenario = scenario;
+        this.threads = threads;
+        this.items = items;
+        this.runNanos = runNanos.clone();
+        long[] sorted = runNanos.clone();
+        Arrays.sort(sorted);
+        this.medianNanos = sorted[sorted.length / 2];
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public long[] getRunNanos() {
+        return runNanos.clone();
+    }
+
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    public long getMinNanos() {
+        long min = Long.MAX_VALUE;
+        for (long nanos : runNanos) {
+            min = Math.min(min, nanos);
+        }
+        return min;
+    }
+
+    public long getMaxNanos() {
+        long max = 0L;
+        for (long nanos : runNanos) {
+            max = Math.max(max, nanos);
+        }
+        return max;
+    }
+
+    /**
+     * Items per second at the median run time.
+     */
+    public double getThroughput() {
+        return items * 1e9 / Math.max(1L, medianNanos);
+    }
+
+    /**
+     * Median time with one thread divided by the median time with this many,
+     * for the same scenario and item count; NaN if one thread was not measured.
+     */
+    public double getSpeedup() {
+        return speedup;
+    }
+
+    /**
+     * Speedup per thread: 1.0 is perfect scaling, and a falling value shows
+     * where the scenario stops scaling.
+     */
+    public double getEfficiency() {
+        return speedup / threads;
+    }
+
+    void setSpeedup(double speedup) {
+        this.speedup = speedup;
+    }
+}
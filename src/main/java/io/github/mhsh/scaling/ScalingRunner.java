@@ -0,0 +1,161 @@
+package io.github.mhsh.scaling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A headless alternative to {@code Main}, {@code JoinImportanceMain} and
+ * {@code NotifyImportanceMain}: instead of running each example once at a
+ * fixed size with sleeps in between, it runs every {@link Scenario} at every
+ * combination of thread count and item count, and reports how throughput
+ * scales with threads.
+ *
+ * <p>Each point gets a number of warm-up runs, which are discarded, and then
+ * measured runs, of which the median is reported. Runs end when the
+ * scenario's threads have finished, so a run takes only as long as its work.
+ *
+ * <p>Usage: {@code ScalingRunner [--out=file.csv|file.json] [--threads=1,2,4]
+ * [--items=10000,100000] [--warmup=3] [--runs=5] [--scenarios=name,...]}.
+ * By default threads go from 1 up to the number of cores, in powers of two,
+ * and results are only printed.
+ */
+public class ScalingRunner {
+
+    private final List<Scenario> scenarios;
+    private final int[] threadCounts;
+    private final int[] itemCounts;
+    private final int warmupRuns;
+    private final int measuredRuns;
+
+    public ScalingRunner(List<Scenario> scenarios, int[] threadCounts, int[] itemCounts,
+                         int warmupRuns, int measuredRuns) {
+        if (warmupRuns < 0 || measuredRuns < 1) {
+            throw new IllegalArgumentException("Invalid run counts: warmup=" + warmupRuns + ", runs=" + measuredRuns);
+        }
+        this.scenarios = new ArrayList<>(scenarios);
+        this.threadCounts = threadCounts.clone();
+        this.itemCounts = itemCounts.clone();
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int[] threadCounts = defaultThreadCounts();
+        int[] itemCounts = {10_000, 100_000};
+        int warmupRuns = 3;
+        int measuredRuns = 5;
+        Path out = null;
+        List<Scenario> scenarios = Scenarios.all();
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--out=")) {
+                out = Paths.get(value);
+            } else if (arg.startsWith("--threads=")) {
+                threadCounts = parseCounts(value);
+            } else if (arg.startsWith("--items=")) {
+                itemCounts = parseCounts(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmupRuns = Integer.parseInt(value);
+            } else if (arg.startsWith("--runs=")) {
+                measuredRuns = Integer.parseInt(value);
+            } else if (arg.startsWith("--scenarios=")) {
+                scenarios = select(scenarios, Arrays.asList(value.split(",")));
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        List<ScalingResult> results =
+                new ScalingRunner(scenarios, threadCounts, itemCounts, warmupRuns, measuredRuns).run();
+        if (out != null) {
+            ScalingReport.write(results, out);
+            System.out.println("Results written to " + out);
+        }
+    }
+
+    /**
+     * Runs the whole sweep, printing one line per point as it completes.
+     */
+    public List<ScalingResult> run() throws InterruptedException {
+        System.out.println("=== Scaling sweep: threads " + Arrays.toString(threadCounts)
+                + ", items " + Arrays.toString(itemCounts)
+                + ", " + warmupRuns + " warm-up + " + measuredRuns + " measured runs ===");
+        List<ScalingResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            for (int items : itemCounts) {
+                ScalingResult baseline = null;
+                for (int threads : threadCounts) {
+                    ScalingResult result = measure(scenario, threads, items);
+                    if (threads == 1) {
+                        baseline = result;
+                    }
+                    if (baseline != null) {
+                        result.setSpeedup((double) baseline.getMedianNanos() / Math.max(1L, result.getMedianNanos()));
+                    }
+                    results.add(result);
+                    System.out.println(String.format(Locale.ROOT,
+                            "%-22s threads %3d, items %,9d: median %,10.3f ms, %,14.0f items/s, speedup %s",
+                            scenario.getName(), threads, items, result.getMedianNanos() / 1e6,
+                            result.getThroughput(), Double.isNaN(result.getSpeedup()) ? "-"
+                                    : String.format(Locale.ROOT, "%.2f", result.getSpeedup())));
+                }
+            }
+        }
+        return results;
+    }
+
+    private ScalingResult measure(Scenario scenario, int threads, int items) throws InterruptedException {
+        for (int i = 0; i < warmupRuns; i++) {
+            scenario.run(threads, items);
+        }
+        long[] runNanos = new long[measuredRuns];
+        for (int i = 0; i < measuredRuns; i++) {
+            long start = System.nanoTime();
+            scenario.run(threads, items);
+            runNanos[i] = System.nanoTime() - start;
+        }
+        return new ScalingResult(scenario.getName(), threads, items, runNanos);
+    }
+
+    private static List<Scenario> select(List<Scenario> scenarios, List<String> names) {
+        List<Scenario> selected = new ArrayList<>();
+        for (String name : names) {
+            Scenario match = null;
+            for (Scenario scenario : scenarios) {
+                if (scenario.getName().equals(name.trim())) {
+                    match = scenario;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + name);
+            }
+            selected.add(match);
+        }
+        return selected;
+    }
+
+    private static int[] defaultThreadCounts() {
+        List<Integer> counts = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int t = 1; t < cores; t <<= 1) {
+            counts.add(t);
+        }
+        counts.add(cores);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] parseCounts(String value) {
+        String[] parts = value.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.mhsh.scaling;
+
+/**
+ * One workload of the examples, without the sleeps and console output that
+ * make the examples readable, so that it can be timed at different sizes.
+ */
+public interface Scenario {
+
+    String getName();
+
+    /**
+     * Runs {@code items} units of work in total, spread over {@code threads}
+     * worker threads, and returns once every thread has finished. Completion
+     * is signalled by the threads themselves, through joins or latches, never
+     * by waiting a fixed time.
+     */
+    void run(int threads, int items) throws InterruptedException;
+}
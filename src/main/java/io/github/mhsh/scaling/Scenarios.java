@@ -0,0 +1,291 @@
+package io.github.mhsh.scaling;
+
+import io.github.mhsh.multithread.counter.Counter;
+import io.github.mhsh.multithread.counter.CounterStrategy;
+import io.github.mhsh.multithread.stop.StopToken;
+import io.github.mhsh.notifyexample.buffer.BoundedBuffer;
+import io.github.mhsh.notifyexample.buffer.ConditionBuffer;
+import io.github.mhsh.notifyexample.buffer.MonitorBuffer;
+import io.github.mhsh.notifyexample.buffer.MpmcRingBuffer;
+import io.github.mhsh.notifyexample.buffer.WorkStealingBuffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The scenarios of the volatile, join and notify examples. Counter scenarios
+ * split the items evenly over the threads; buffer scenarios have one producer
+ * putting all items and {@code threads} consumers taking them.
+ */
+public final class Scenarios {
+
+    private static final int BUFFER_SIZE = 5;
+    private static final Integer END_OF_STREAM = -1;
+
+    private Scenarios() {
+    }
+
+    /**
+     * A scenario with the given name that runs {@code body}.
+     */
+    public static Scenario of(String name, Body body) {
+        return new Scenario() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run(int threads, int items) throws InterruptedException {
+                body.run(threads, items);
+            }
+        };
+    }
+
+    /**
+     * The body of a scenario, see {@link Scenario#run(int, int)}.
+     */
+    @FunctionalInterface
+    public interface Body {
+        void run(int threads, int items) throws InterruptedException;
+    }
+
+    public static List<Scenario> all() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(of("volatile-limitations", Scenarios::volatileIncrements));
+        scenarios.add(of("volatile-stop", Scenarios::volatileStop));
+        scenarios.add(of("atomic-solution", Scenarios::atomicIncrements));
+        for (CounterStrategy strategy : CounterStrategy.values()) {
+            scenarios.add(of("counter-" + strategy.name().toLowerCase(Locale.ROOT),
+                    (threads, items) -> counterIncrements(strategy, threads, items)));
+        }
+        scenarios.add(of("join-counter-holder", Scenarios::joinCounterHolder));
+        scenarios.add(of("notify-all-monitor", Scenarios::notifyAllMonitor));
+        scenarios.add(of("buffer-monitor", (threads, items) -> buffer(() -> new MonitorBuffer<>(BUFFER_SIZE), threads, items)));
+        scenarios.add(of("buffer-condition", (threads, items) -> buffer(() -> new ConditionBuffer<>(BUFFER_SIZE), threads, items)));
+        scenarios.add(of("buffer-mpmc-ring", (threads, items) -> buffer(() -> new MpmcRingBuffer<>(BUFFER_SIZE), threads, items)));
+        scenarios.add(of("work-stealing", Scenarios::workStealing));
+        return scenarios;
+    }
+
+    // VolatileLimitations.start(): racy counter++ on a volatile field
+    private static void volatileIncrements(int threads, int items) throws InterruptedException {
+        VolatileCounter counter = new VolatileCounter();
+        runWorkers(threads, worker -> {
+            for (int j = share(items, threads, worker); j > 0; j--) {
+                counter.value++;
+            }
+        });
+    }
+
+    // VolatileDemo.start(): workers loop until a volatile stop flag is set. The stop
+    // is requested once every worker has done its share, instead of after a sleep
+    private static void volatileStop(int threads, int items) throws InterruptedException {
+        StopToken token = new StopToken();
+        CountDownLatch sharesDone = new CountDownLatch(threads);
+        Thread[] workers = startWorkers(threads, worker -> {
+            long target = share(items, threads, worker);
+            long counter = 0;
+            if (target == 0) {
+                sharesDone.countDown();
+            }
+            while (!token.isStopRequested()) {
+                if (++counter == target) {
+                    sharesDone.countDown();
+                }
+            }
+        });
+        sharesDone.await();
+        token.requestStop();
+        joinAll(workers);
+    }
+
+    // AtomicSolution.start(): one shared AtomicInteger
+    private static void atomicIncrements(int threads, int items) throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        runWorkers(threads, worker -> {
+            for (int j = share(items, threads, worker); j > 0; j--) {
+                counter.incrementAndGet();
+            }
+        });
+    }
+
+    // AtomicSolution.start(CounterStrategy)
+    private static void counterIncrements(CounterStrategy strategy, int threads, int items) throws InterruptedException {
+        Counter counter = strategy.create();
+        runWorkers(threads, worker -> {
+            for (int j = share(items, threads, worker); j > 0; j--) {
+                counter.increment();
+            }
+        });
+    }
+
+    // JoinSolutionExample.runWithJoin(): an unsynchronized holder, workers joined in creation order
+    private static void joinCounterHolder(int threads, int items) throws InterruptedException {
+        PlainCounter holder = new PlainCounter();
+        runWorkers(threads, worker -> {
+            for (int j = share(items, threads, worker); j > 0; j--) {
+                holder.increment();
+            }
+        });
+    }
+
+    // NotifyAllExample.runWithMultipleConsumers(): synchronized(buffer) with wait()/notifyAll()
+    private static void notifyAllMonitor(int threads, int items) throws InterruptedException {
+        Queue<Integer> buffer = new LinkedList<>();
+        boolean[] producerDone = {false};
+
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    synchronized (buffer) {
+                        while (buffer.size() >= BUFFER_SIZE) {
+                            buffer.wait();
+                        }
+                        buffer.add(i);
+                        buffer.notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (buffer) {
+                producerDone[0] = true;
+                buffer.notifyAll();
+            }
+        });
+        producer.start();
+        runWorkers(threads, worker -> {
+            try {
+                while (true) {
+                    synchronized (buffer) {
+                        while (buffer.isEmpty() && !producerDone[0]) {
+                            buffer.wait();
+                        }
+                        if (buffer.isEmpty()) {
+                            return;
+                        }
+                        buffer.poll();
+                        buffer.notifyAll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join();
+    }
+
+    // One producer and `threads` consumers on a BoundedBuffer; one end marker per consumer
+    private static void buffer(Supplier<BoundedBuffer<Integer>> factory, int threads, int items)
+            throws InterruptedException {
+        BoundedBuffer<Integer> buffer = factory.get();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    buffer.put(i);
+                }
+                for (int c = 0; c < threads; c++) {
+                    buffer.put(END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        runWorkers(threads, worker -> {
+            try {
+                while (!END_OF_STREAM.equals(buffer.take())) {
+                    // Consume
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join();
+    }
+
+    // NotifyAllExample.runWithWorkStealing(): one deque per consumer, stealing when idle
+    private static void workStealing(int threads, int items) throws InterruptedException {
+        WorkStealingBuffer<Integer> pool = new WorkStealingBuffer<>(threads, BUFFER_SIZE);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < items; i++) {
+                    pool.put(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.close();
+        });
+        producer.start();
+        runWorkers(threads, worker -> {
+            try {
+                while (pool.take(worker) != null) {
+                    // Consume
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join();
+    }
+
+    // Worker w's part of the items: the first (items % threads) workers get one more
+    private static int share(int items, int threads, int worker) {
+        return items / threads + (worker < items % threads ? 1 : 0);
+    }
+
+    private static void runWorkers(int threads, IntConsumer body) throws InterruptedException {
+        joinAll(startWorkers(threads, body));
+    }
+
+    private static Thread[] startWorkers(int threads, IntConsumer body) {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int worker = i;
+            workers[i] = new Thread(() -> body.accept(worker));
+            workers[i].start();
+        }
+        return workers;
+    }
+
+    private static void joinAll(Thread[] workers) throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static final class VolatileCounter {
+        volatile int value;
+    }
+
+    // Unsynchronized read-modify-write like the example's, but every store is
+    // opaque, so the JIT cannot keep the value in a register and fold the loop
+    private static final class PlainCounter {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(PlainCounter.class, "value", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private int value;
+
+        void increment() {
+            VALUE.setOpaque(this, (int) VALUE.getOpaque(this) + 1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.mhsh.threads;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads for the examples' {@code ThreadFactory} seams.
+ *
+ * <p>This is the Java 11 version: virtual threads do not exist, so
+ * {@link #isSupported()} returns false. When the project is built on Java 21
+ * the {@code java21} profile compiles {@code src/main/java21} into the
+ * multi-release jar, and that version of this class is used instead.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns true if this runtime and build can create virtual threads.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a factory for virtual threads named {@code namePrefix0},
+     * {@code namePrefix1}, and so on.
+     *
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ThreadFactory factory(String namePrefix) {
+        throw new UnsupportedOperationException(
+                "Virtual threads need Java 21 and a build with the java21 profile");
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.mhsh.watchdog;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A background sampler that notices when a group of threads stops making
+ * progress, instead of joining them with a timeout and guessing from
+ * {@code isAlive()}.
+ *
+ * <p>Every interval it asks the {@link ThreadMXBean} for threads deadlocked on
+ * monitors or ownable synchronizers, and reads the progress counters and state
+ * values it was given. It reports:
+ * <ul>
+ *   <li>a {@link WatchdogReport.Kind#DEADLOCK} as soon as a lock cycle exists;</li>
+ *   <li>a {@link WatchdogReport.Kind#STALL} when no counter or state value has
+ *       changed for {@code stallIntervals} samples while a watched thread is
+ *       still alive, such as consumers all parked in {@code wait()} after a
+ *       lost {@code notify()}.</li>
+ * </ul>
+ * Each incident is reported once, with the stacks of the threads involved.
+ *
+ * <p>A sample costs one {@code findDeadlockedThreads()} call plus one read per
+ * watched value; stacks are only collected when there is something to report.
+ * That keeps the cost bounded and small enough to leave the watchdog running.
+ * {@code ThreadMXBean} does not see virtual threads, so watch platform threads.
+ */
+public class Watchdog implements AutoCloseable {
+    private static final int MAX_STACK_DEPTH = 16;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final long intervalNanos;
+    private final int stallIntervals;
+    private final Consumer<WatchdogReport> listener;
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final List<LongSupplier> progress = new CopyOnWriteArrayList<>();
+    private final CountDownLatch outcome = new CountDownLatch(1);
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Only touched by the sampler thread
+    private long[] lastValues = new long[0];
+    private int unchangedSamples;
+    private boolean stallReported;
+    private long[] lastDeadlock = new long[0];
+
+    private volatile WatchdogReport firstReport;
+
+    /**
+     * @param interval time between samples
+     * @param stallIntervals how many samples without any change count as a stall
+     * @param listener receives every report, on the watchdog's thread
+     */
+    public Watchdog(long interval, TimeUnit unit, int stallIntervals, Consumer<WatchdogReport> listener) {
+        if (interval <= 0L || stallIntervals < 1) {
+            throw new IllegalArgumentException("Interval and stallIntervals must be positive");
+        }
+        this.intervalNanos = unit.toNanos(interval);
+        this.stallIntervals = stallIntervals;
+        this.listener = listener;
+    }
+
+    /**
+     * Watches a thread whose progress is the value of {@code itemCounter}, for
+     * example the number of items it has produced or consumed.
+     */
+    public Watchdog watch(Thread thread, LongSupplier itemCounter) {
+        threads.add(thread);
+        progress.add(itemCounter);
+        return this;
+    }
+
+    /**
+     * Adds a value that counts as progress whenever it changes, such as a
+     * buffer's size. It is read from the watchdog's thread without locking, so
+     * it must not block.
+     */
+    public Watchdog watchState(LongSupplier state) {
+        progress.add(state);
+        return this;
+    }
+
+    public Watchdog start() {
+        sampler.scheduleAtFixedRate(this::sample, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Waits until every watched thread has terminated or the first deadlock or
+     * stall has been reported.
+     *
+     * @return the first report, or null if all watched threads finished
+     */
+    public WatchdogReport awaitOutcome() throws InterruptedException {
+        outcome.await();
+        return firstReport;
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        try {
+            checkDeadlock();
+            checkProgress();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task; report it and keep sampling
+            e.printStackTrace();
+        }
+    }
+
+    private void checkDeadlock() {
+        long[] ids = threadBean.findDeadlockedThreads();
+        if (ids == null) {
+            lastDeadlock = new long[0];
+            return;
+        }
+        Arrays.sort(ids);
+        if (Arrays.equals(ids, lastDeadlock)) {
+            return;
+        }
+        lastDeadlock = ids;
+        report(WatchdogReport.Kind.DEADLOCK, ids);
+    }
+
+    private void checkProgress() {
+        long[] values = new long[progress.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = progress.get(i).getAsLong();
+        }
+        if (!Arrays.equals(values, lastValues)) {
+            lastValues = values;
+            unchangedSamples = 0;
+            stallReported = false;
+            return;
+        }
+        
+        // Not-yet-started threads count as alive: they have not finished
+        List<Thread> alive = new ArrayList<>();
+        for (Thread thread : threads) {
+            if (thread.getState() != Thread.State.TERMINATED) {
+                alive.add(thread);
+            }
+        }
+        if (alive.isEmpty()) {
+            if (!threads.isEmpty()) {
+                outcome.countDown();
+            }
+            return;
+        }
+        if (++unchangedSamples >= stallIntervals && !stallReported) {
+            stallReported = true;
+            long[] ids = new long[alive.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = alive.get(i).getId();
+            }
+            report(WatchdogReport.Kind.STALL, ids);
+        }
+    }
+
+    private void report(WatchdogReport.Kind kind, long[] threadIds) {
+        List<ThreadInfo> infos = new ArrayList<>();
+        for (ThreadInfo info : threadBean.getThreadInfo(threadIds, MAX_STACK_DEPTH)) {
+            // A thread may have terminated since it was sampled
+            if (info != null) {
+                infos.add(info);
+            }
+        }
+        WatchdogReport report = new WatchdogReport(kind, infos,
+                kind == WatchdogReport.Kind.STALL ? unchangedSamples * intervalNanos : 0L);
+        if (firstReport == null) {
+            firstReport = report;
+        }
+        listener.accept(report);
+        outcome.countDown();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.mhsh.watchdog;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ThreadInfo;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One deadlock or stall seen by a {@link Watchdog}: the kind of incident and
+ * the state and stack of every thread involved.
+ */
+public class WatchdogReport {
+
+    public enum Kind {
+        /** Threads waiting on each other's monitors or locks in a cycle. */
+        DEADLOCK,
+        /** Live threads whose progress counters and state stopped changing. */
+        STALL
+    }
+
+    private final Kind kind;
+    private final List<ThreadInfo> threads;
+    private final long stalledNanos;
+
+    WatchdogReport(Kind kind, List<ThreadInfo> threads, long stalledNanos) {
+        this.kind = kind;
+        this.threads = Collections.unmodifiableList(threads);
+        this.stalledNanos = stalledNanos;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<ThreadInfo> getThreads() {
+        return threads;
+    }
+
+    /**
+     * For a stall, how long nothing changed before it was reported; zero for a deadlock.
+     */
+    public long getStalledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(stalledNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (kind == Kind.DEADLOCK) {
+            sb.append("DEADLOCK between ").append(threads.size()).append(" threads\n");
+        } else {
+            sb.append("STALL: no progress for ").append(getStalledMillis()).append(" ms in ")
+              .append(threads.size()).append(" live threads\n");
+        }
+        for (ThreadInfo info : threads) {
+            sb.append("  \"").append(info.getThreadName()).append("\" ").append(info.getThreadState());
+            LockInfo lock = info.getLockInfo();
+            if (lock != null) {
+                sb.append(" on ").append(lock);
+                if (info.getLockOwnerName() != null) {
+                    sb.append(" owned by \"").append(info.getLockOwnerName()).append('"');
+                }
+            }
+            sb.append('\n');
+            for (StackTraceElement frame : info.getStackTrace()) {
+                sb.append("      at ").append(frame).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.mhsh.threads;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads for the examples' {@code ThreadFactory} seams.
+ *
+ * <p>This is the Java 21 version, packaged under {@code META-INF/versions/21}
+ * of the multi-release jar.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns true if this runtime and build can create virtual threads.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Returns a factory for virtual threads named {@code namePrefix0},
+     * {@code namePrefix1}, and so on.
+     */
+    public static ThreadFactory factory(String namePrefix) {
+        return Thread.ofVirtual().name(namePrefix, 0).factory();
+    }
+}